@@ -6,11 +6,15 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -28,6 +32,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
@@ -37,13 +45,37 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByBookerId(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookingsByBookerId(Long userId, BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get("?state={state}&from={from}&size={size}" + afterQuery(after), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsForItemsByOwnerId(Long userId, BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get("/owner?state={state}&from={from}&size={size}" + afterQuery(after), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingCounts(Long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCountsForOwner(Long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(Long userId) throws IOException {
+        return stream("/owner/export", userId);
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name(), "from", from, "size", size));
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 
-    public ResponseEntity<Object> getBookingsForItemsByOwnerId(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    private static String afterQuery(String after) {
+        return after == null ? "" : "&after={after}";
     }
 }
\ No newline at end of file
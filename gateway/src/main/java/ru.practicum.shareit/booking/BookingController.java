@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
@@ -12,6 +13,8 @@ import ru.practicum.shareit.exception.UnsupportedStatusException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.util.List;
 
 
 @Validated
@@ -29,6 +32,12 @@ public class BookingController {
         return bookingClient.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                              @RequestBody List<BookingDto> bookingDtos) {
+        return bookingClient.addBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader(HEADER_USER_ID) Long userId, @PathVariable Long bookingId,
                                                  @RequestParam Boolean approved) {
@@ -45,17 +54,34 @@ public class BookingController {
     public ResponseEntity<Object> getBookingsByBookerId(@RequestHeader(HEADER_USER_ID) Long userId,
                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                        @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() -> new UnsupportedStatusException("Unknown state: " + stateParam));
-        return bookingClient.getBookingsByBookerId(userId, state, from, size);
+        return bookingClient.getBookingsByBookerId(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsForItemsByOwnerId(@RequestHeader(HEADER_USER_ID) Long userId,
                                                                @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() -> new UnsupportedStatusException("Unknown state: " + stateParam));
-        return bookingClient.getBookingsForItemsByOwnerId(userId, state, from, size);
+        return bookingClient.getBookingsForItemsByOwnerId(userId, state, from, size, after);
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Object> getBookingCounts(@RequestHeader(HEADER_USER_ID) Long userId) {
+        return bookingClient.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> getBookingCountsForOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
+        return bookingClient.getBookingCountsForOwner(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(@RequestHeader(HEADER_USER_ID) Long userId) throws IOException {
+        return bookingClient.exportBookingsForOwner(userId);
     }
 }
\ No newline at end of file
@@ -5,10 +5,16 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -81,6 +87,41 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+        request.getHeaders().set(HEADER_USER_ID, String.valueOf(userId));
+        ClientHttpResponse response = request.execute();
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+        if (response.getHeaders().getContentType() != null) {
+            responseBuilder.contentType(response.getHeaders().getContentType());
+        }
+        return responseBuilder.body(out -> {
+            try (response; InputStream body = response.getBody()) {
+                byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            }
+        });
+    }
+
+    protected ResponseEntity<Object> upload(String path, long userId, MediaType contentType, InputStream body) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.POST);
+        request.getHeaders().set(HEADER_USER_ID, String.valueOf(userId));
+        request.getHeaders().setContentType(contentType);
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+        StreamUtils.copy(body, request.getBody());
+        try (ClientHttpResponse response = request.execute()) {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+            if (response.getHeaders().getContentType() != null) {
+                responseBuilder.contentType(response.getHeaders().getContentType());
+            }
+            return responseBuilder.body(StreamUtils.copyToByteArray(response.getBody()));
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
         ResponseEntity<Object> shareitServerResponse;
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -13,4 +15,13 @@ public class ErrorHandler {
     public ErrorResponse handleUnsupportedStatusException(final UnsupportedStatusException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleWebClientResponseException(final WebClientResponseException e) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(e.getRawStatusCode());
+        if (e.getHeaders().getContentType() != null) {
+            responseBuilder.contentType(e.getHeaders().getContentType());
+        }
+        return responseBuilder.body(e.getResponseBodyAsByteArray());
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,10 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,7 +24,11 @@ public class ItemClient extends BaseClient {
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/items"))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+                    requestFactory.setBufferRequestBody(false);
+                    return requestFactory;
+                })
                 .build());
     }
 
@@ -27,6 +36,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(Long userId, MediaType contentType, InputStream body) throws IOException {
+        return upload("/import", userId, contentType, body);
+    }
+
     public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -35,6 +48,20 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder("/" + itemId + "/availability?");
+        if (from != null) {
+            parameters.put("from", from.toString());
+            query.append("from={from}&");
+        }
+        if (to != null) {
+            parameters.put("to", to.toString());
+            query.append("to={to}");
+        }
+        return get(query.toString(), null, parameters);
+    }
+
     public ResponseEntity<Object> getItemsByUserId(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("?from={from}&size={size}", userId, parameters);
@@ -45,6 +72,22 @@ public class ItemClient extends BaseClient {
         return get("/search/?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    public ResponseEntity<Object> suggest(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, Long after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        StringBuilder query = new StringBuilder("/" + itemId + "/comments?size={size}");
+        if (after != null) {
+            parameters.put("after", after);
+            query.append("&after={after}");
+        }
+        return get(query.toString(), null, parameters);
+    }
+
     public ResponseEntity<Object> postComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
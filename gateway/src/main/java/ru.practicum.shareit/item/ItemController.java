@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -9,8 +12,12 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Validated
 @Controller
@@ -26,6 +33,13 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<Object> importItems(@RequestHeader(HEADER_USER_ID) Long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream body) throws IOException {
+        return itemClient.importItems(userId, MediaType.parseMediaType(contentType), body);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(@RequestHeader(HEADER_USER_ID) Long userId, @RequestBody ItemDto itemDto,
                                          @PathVariable("itemId") Long itemId) {
@@ -37,6 +51,13 @@ public class ItemController {
         return itemClient.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable("itemId") Long itemId,
+                                                  @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItemsByUserId(@RequestHeader(HEADER_USER_ID) Long userId,
                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
@@ -51,6 +72,19 @@ public class ItemController {
         return itemClient.getItemsByKeyword(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam("prefix") String prefix,
+                                          @Positive @Max(50) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable("itemId") Long itemId,
+                                              @RequestParam(name = "after", required = false) Long after,
+                                              @Positive @Max(100) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemClient.getComments(itemId, after, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> postComment(@RequestHeader(HEADER_USER_ID) Long userId, @PathVariable("itemId") Long itemId,
                                               @RequestBody @Valid CommentDto commentDto) {
@@ -3,41 +3,90 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import javax.annotation.PreDestroy;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final ConnectionProvider eventConnections;
+    private final WebClient events;
+
+    /**
+     * Subscriptions stay open for as long as the server keeps its emitter, so they are proxied without blocking
+     * through their own connection pool and never take connections or threads from the other request calls.
+     */
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             WebClient.Builder webClientBuilder,
+                             @Value("${shareit-server.events.max-connections}") int maxConnections) {
         super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/requests"))
                 .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                 .build());
+        this.eventConnections = ConnectionProvider.builder("request-events")
+                .maxConnections(maxConnections)
+                .build();
+        this.events = webClientBuilder.baseUrl(serverUrl + "/requests")
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(eventConnections)))
+                .build();
     }
 
     public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllRequestsByUserId(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllRequestsByUserId(Long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Long after, Integer from, Integer size) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of("after", after, "size", size);
+            return get("/all?after={after}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribe(Long userId) {
+        return events.get()
+                .uri("/subscribe")
+                .header(HEADER_USER_ID, String.valueOf(userId))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .toEntityFlux(EVENT);
+    }
+
     public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        eventConnections.dispose();
+    }
+
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -28,15 +31,23 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequestsByUserId(@RequestHeader(HEADER_USER_ID) Long userId) {
-        return itemRequestClient.getAllRequestsByUserId(userId);
+    public ResponseEntity<Object> getAllRequestsByUserId(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemRequestClient.getAllRequestsByUserId(userId, from, size);
     }
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                 @RequestParam(name = "after", required = false) Long after,
                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return itemRequestClient.getAllRequests(userId, from, size);
+        return itemRequestClient.getAllRequests(userId, after, from, size);
+    }
+
+    @GetMapping("/subscribe")
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribe(@RequestHeader(HEADER_USER_ID) Long userId) {
+        return itemRequestClient.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
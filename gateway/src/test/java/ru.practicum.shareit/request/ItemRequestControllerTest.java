@@ -0,0 +1,189 @@
+package ru.practicum.shareit.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ItemRequestControllerTest {
+
+    private static final int SUBSCRIBERS = 40;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final ExecutorService UPSTREAM_THREADS = Executors.newCachedThreadPool();
+    private static final HttpServer UPSTREAM = upstream();
+
+    private static volatile CountDownLatch answered = new CountDownLatch(1);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final List<Stream<String>> streams = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + UPSTREAM.getAddress().getPort());
+    }
+
+    @AfterEach
+    void afterEach() {
+        answered.countDown();
+        streams.forEach(Stream::close);
+        answered = new CountDownLatch(1);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        UPSTREAM.stop(0);
+        UPSTREAM_THREADS.shutdownNow();
+    }
+
+    @Test
+    void testOpenSubscriptionsDoNotBlockOtherRequests() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), this::subscribeAndRequest);
+    }
+
+    private void subscribeAndRequest() throws Exception {
+        List<Iterator<String>> subscriptions = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            HttpResponse<Stream<String>> response = client.send(request("/requests/subscribe"),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+            streams.add(response.body());
+            Iterator<String> lines = response.body().iterator();
+            readUntil(lines, ":subscribed");
+            subscriptions.add(lines);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<String> response = client.send(request("/requests?from=0&size=10"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertEquals("[]", response.body());
+        }
+
+        answered.countDown();
+        for (Iterator<String> lines : subscriptions) {
+            assertEquals(Set.of("event:item", "id:1", "data:{\"id\":1,\"name\":\"drill\"}"), readEvent(lines));
+        }
+    }
+
+    @Test
+    void testSubscribeReturnsServerError() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/requests/subscribe"))
+                .header("X-Sharer-User-Id", "99")
+                .header("Accept", "text/event-stream")
+                .timeout(TIMEOUT)
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"user 99 not found\"}", response.body());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", "1")
+                .timeout(TIMEOUT)
+                .build();
+    }
+
+    private static Set<String> readEvent(Iterator<String> lines) {
+        Set<String> event = new HashSet<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (!line.isEmpty()) {
+                event.add(line);
+            } else if (!event.isEmpty()) {
+                return event;
+            }
+        }
+        throw new AssertionError("stream closed before event, received " + event);
+    }
+
+    private static void readUntil(Iterator<String> lines, String marker) {
+        while (lines.hasNext()) {
+            if (lines.next().equals(marker)) {
+                return;
+            }
+        }
+        throw new AssertionError("stream closed before " + marker);
+    }
+
+    private static HttpServer upstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(UPSTREAM_THREADS);
+            server.createContext("/requests/subscribe", ItemRequestControllerTest::subscribe);
+            server.createContext("/requests", exchange -> respond(exchange, 200, "[]"));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void subscribe(HttpExchange exchange) throws IOException {
+        if (!"1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"))) {
+            respond(exchange, 404, "{\"error\":\"user 99 not found\"}");
+            return;
+        }
+        CountDownLatch latch = answered;
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(":subscribed\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            latch.await();
+            out.write("event:item\nid:1\ndata:{\"id\":1,\"name\":\"drill\"}\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the gateway closed the subscription
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {"дрель", "пила", "отвёртка", "молоток", "рубанок", "стремянка", "перфоратор",
+            "лобзик", "шуруповёрт", "болгарка", "аккумуляторная", "ударная", "садовая", "крестовая", "мощная", "лёгкая"};
+
+    @Param("1000000")
+    int items;
+
+    @Param({"дрель", "шуруповёрт ударная", "xyz"})
+    String text;
+
+    ItemNgramIndex index;
+
+    Connection connection;
+
+    PreparedStatement like;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:benchmark");
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(200), description VARCHAR(2000), " +
+                    "is_available BOOLEAN)");
+        }
+        index = new ItemNgramIndex();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= items; id++) {
+                String name = phrase(random, 2);
+                String description = phrase(random, 8);
+                boolean available = random.nextInt(10) > 0;
+                index.put(id, name, description, available);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, description);
+                insert.setBoolean(4, available);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        like = connection.prepareStatement("SELECT id FROM items WHERE is_available = TRUE " +
+                "AND (UPPER(name) LIKE UPPER(CONCAT('%', ?, '%')) OR UPPER(description) LIKE UPPER(CONCAT('%', ?, '%'))) " +
+                "ORDER BY id LIMIT 10");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        like.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> ngram() {
+        return index.search(text, 0, 10);
+    }
+
+    @Benchmark
+    public List<Long> like() throws SQLException {
+        like.setString(1, text);
+        like.setString(2, text);
+        List<Long> result = new ArrayList<>();
+        try (ResultSet resultSet = like.executeQuery()) {
+            while (resultSet.next()) {
+                result.add(resultSet.getLong(1));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "booker"})
+    Optional<ArchivedBooking> findDetailedById(long bookingId);
+
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(long itemId, long bookerId, Status status, LocalDateTime dateTime);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId from ArchivedBooking b " +
+            "where b.id > ?3 and b.status = ?1 and b.end < ?2 order by b.id")
+    List<BookerItem> findEndedByStatus(Status status, LocalDateTime dateTime, long afterId, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")})
+    @Query("select b from ArchivedBooking b join fetch b.item i join fetch b.booker where i.owner.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Stream<ArchivedBooking> streamByOwnerId(long ownerId);
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+public interface BookerItem {
+
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true")
+public class BookingArchiveJob {
+
+    private final BookingService bookingService;
+    private final Duration horizon;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter archived;
+    private final Timer runs;
+
+    public BookingArchiveJob(BookingService bookingService, MeterRegistry registry,
+                             @Value("${shareit.booking.archive.horizon}") Duration horizon,
+                             @Value("${shareit.booking.archive.batch-size}") int batchSize,
+                             @Value("${shareit.booking.archive.max-batches}") int maxBatches) {
+        this.bookingService = bookingService;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archived = Counter.builder("shareit.bookings.archived")
+                .description("Finished bookings moved to the archive")
+                .register(registry);
+        this.runs = Timer.builder("shareit.bookings.archive.run")
+                .description("Duration of one archive run")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.delay}")
+    public void archive() {
+        runs.record(() -> {
+            LocalDateTime before = LocalDateTime.now().minus(horizon);
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int count = bookingService.archiveFinishedBookings(before, batchSize);
+                archived.increment(count);
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+            log.info("archived {} bookings finished before {}", total, before);
+        });
+    }
+}
\ No newline at end of file
@@ -2,11 +2,16 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.validation.Valid;
@@ -20,6 +25,8 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingCounterService bookingCounterService;
+    private final BookingExporter bookingExporter;
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
@@ -29,6 +36,13 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.addBooking(bookingDto, userId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                                      @RequestBody List<BookingDto> bookingDtos) {
+        log.info("add {} bookings by userId {}", bookingDtos.size(), userId);
+        return ResponseEntity.ok(bookingService.addBookings(bookingDtos, userId));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<OutputBookingDto> approve(@PathVariable Long bookingId, @RequestParam boolean approved,
                                                     @RequestHeader(HEADER_USER_ID) Long userId) {
@@ -47,17 +61,39 @@ public class BookingController {
     public ResponseEntity<List<OutputBookingDto>> getAllBookings(@RequestHeader(HEADER_USER_ID) Long userId,
                                                                  @RequestParam(defaultValue = "ALL", required = false) String state,
                                                                  @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                                 @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                                                 @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                                 @RequestParam(required = false) String after) {
         log.info("get bookings by bookerId {}", userId);
-        return ResponseEntity.ok(bookingService.getBookingsByBookerId(userId, state, from, size));
+        return ResponseEntity.ok(bookingService.getBookingsByBookerId(userId, state, from, size, after));
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<OutputBookingDto>> getAllBookingsForOwner(@RequestHeader(HEADER_USER_ID) Long userId,
                                                                          @RequestParam(defaultValue = "ALL", required = false) String state,
                                                                          @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                                         @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                                                         @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                                         @RequestParam(required = false) String after) {
         log.info("get bookings by ownerId {}", userId);
-        return ResponseEntity.ok(bookingService.getBookingsForItemsByOwnerId(userId, state, from, size));
+        return ResponseEntity.ok(bookingService.getBookingsForItemsByOwnerId(userId, state, from, size, after));
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<BookingCountsDto> getBookingCounts(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("get booking counts by bookerId {}", userId);
+        return ResponseEntity.ok(bookingCounterService.getCounts(userId, BookingRole.BOOKER));
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<BookingCountsDto> getBookingCountsForOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("get booking counts by ownerId {}", userId);
+        return ResponseEntity.ok(bookingCounterService.getCounts(userId, BookingRole.OWNER));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("export bookings by ownerId {}", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExporter.exportByOwnerId(userId));
     }
 }
\ No newline at end of file
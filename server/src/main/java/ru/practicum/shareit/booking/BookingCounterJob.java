@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingCounterService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.counters.enabled", havingValue = "true")
+public class BookingCounterJob {
+
+    private final BookingCounterService bookingCounterService;
+    private final int batchSize;
+    private final Counter repaired;
+
+    public BookingCounterJob(BookingCounterService bookingCounterService, MeterRegistry registry,
+                             @Value("${shareit.booking.counters.batch-size}") int batchSize) {
+        this.bookingCounterService = bookingCounterService;
+        this.batchSize = batchSize;
+        this.repaired = Counter.builder("shareit.bookings.counters.repaired")
+                .description("Booking counters corrected by reconciliation")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.advance-delay}")
+    public void advance() {
+        bookingCounterService.advance(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.reconcile-delay}")
+    public void reconcile() {
+        long after = 0;
+        int total = 0;
+        List<Long> userIds = bookingCounterService.findCountedUserIds(after, batchSize);
+        while (!userIds.isEmpty()) {
+            total += bookingCounterService.reconcile(userIds);
+            after = userIds.get(userIds.size() - 1);
+            userIds = bookingCounterService.findCountedUserIds(after, batchSize);
+        }
+        repaired.increment(total);
+        log.info("reconciled booking counters, repaired {}", total);
+    }
+}
\ No newline at end of file
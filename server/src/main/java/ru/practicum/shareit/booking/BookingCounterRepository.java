@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingCounter;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingCounterRepository extends JpaRepository<BookingCounter, BookingCounter.Key> {
+
+    @Modifying
+    @Query("update BookingCounter c set c.waiting = c.waiting + ?3, c.future = c.future + ?4 where c.userId = ?1 and c.role = ?2")
+    int increment(long userId, BookingRole role, long waiting, long future);
+
+    @Query("select distinct c.userId from BookingCounter c where c.userId > ?1 order by c.userId")
+    List<Long> findUserIds(long afterUserId, Pageable pageable);
+
+    List<BookingCounter> findByUserIdIn(Collection<Long> userIds);
+}
\ No newline at end of file
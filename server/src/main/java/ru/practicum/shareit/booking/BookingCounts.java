@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingCounts {
+
+    Long getUserId();
+
+    Long getWaiting();
+
+    Long getCurrent();
+
+    Long getFuture();
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.error.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingCursor {
+
+    LocalDateTime start;
+    long id;
+
+    public static BookingCursor parse(String after) {
+        int separator = after.lastIndexOf(',');
+        try {
+            return new BookingCursor(LocalDateTime.parse(after.substring(0, separator).trim()),
+                    Long.parseLong(after.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор: " + after);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return start + "," + id;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingEvent {
+
+    Long bookingId;
+    Long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+
+    public static BookingEvent of(Booking booking) {
+        return of(booking, booking.getStatus());
+    }
+
+    public static BookingEvent of(Booking booking, Status status) {
+        return new BookingEvent(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(), status);
+    }
+}
\ No newline at end of file
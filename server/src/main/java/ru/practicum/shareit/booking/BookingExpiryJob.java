@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true")
+public class BookingExpiryJob {
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+    private final Timer runs;
+    private final AtomicLong lag = new AtomicLong();
+
+    public BookingExpiryJob(BookingService bookingService, BookingRepository bookingRepository, MeterRegistry registry,
+                            @Value("${shareit.booking.expiry.batch-size}") int batchSize,
+                            @Value("${shareit.booking.expiry.max-batches}") int maxBatches) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("shareit.bookings.expired")
+                .description("WAITING bookings moved to EXPIRED")
+                .register(registry);
+        this.runs = Timer.builder("shareit.bookings.expiry.run")
+                .description("Duration of one expiry run")
+                .register(registry);
+        Gauge.builder("shareit.bookings.expiry.lag", lag, AtomicLong::get)
+                .description("Age in seconds of the oldest WAITING booking whose start has passed")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.delay}")
+    public void expire() {
+        runs.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int count = bookingService.expireWaitingBookings(now, batchSize);
+                expired.increment(count);
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+            lag.set(bookingRepository.findFirstByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, now)
+                    .map(booking -> Duration.between(booking.getStart(), now).getSeconds())
+                    .orElse(0L));
+            log.info("expired {} waiting bookings", total);
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class BookingExporter {
+
+    private static final int FLUSH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExporter(BookingRepository bookingRepository, ArchivedBookingRepository archivedBookingRepository,
+                           UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(OutputBookingDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportByOwnerId(long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с ID %d не найден", userId));
+        }
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                try (Stream<Booking> bookings = bookingRepository.streamByOwnerId(userId)) {
+                    write(out, bookings, Function.identity());
+                }
+                try (Stream<ArchivedBooking> bookings = archivedBookingRepository.streamByOwnerId(userId)) {
+                    write(out, bookings, BookingMapper::returnBooking);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> void write(OutputStream out, Stream<T> bookings, Function<T, Booking> mapper) throws IOException {
+        Iterator<T> iterator = bookings.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            out.write(writer.writeValueAsBytes(BookingMapper.toBookingDto(mapper.apply(iterator.next()))));
+            out.write('\n');
+            if (++count % FLUSH_SIZE == 0) {
+                out.flush();
+                entityManager.clear();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 import ru.practicum.shareit.booking.dto.ShortItemBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounter;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.BookingPointer;
 import ru.practicum.shareit.user.UserMapper;
 
 import java.util.ArrayList;
@@ -25,6 +29,17 @@ public class BookingMapper {
         return booking;
     }
 
+    public static Booking returnBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .item(archivedBooking.getItem())
+                .booker(archivedBooking.getBooker())
+                .status(archivedBooking.getStatus())
+                .build();
+    }
+
     public static List<OutputBookingDto> returnBookingDtoList(Iterable<Booking> bookings) {
         List<OutputBookingDto> result = new ArrayList<>();
         for (Booking booking : bookings) {
@@ -44,6 +59,14 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingCountsDto toBookingCountsDto(BookingCounter counter) {
+        return BookingCountsDto.builder()
+                .waiting(counter.getWaiting())
+                .current(counter.getCurrent())
+                .future(counter.getFuture())
+                .build();
+    }
+
     public static ShortItemBookingDto toBookingShortDto(Booking booking) {
         return ShortItemBookingDto.builder()
                 .id(booking.getId())
@@ -52,4 +75,22 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static ShortItemBookingDto toBookingShortDto(BookingPointer pointer) {
+        return ShortItemBookingDto.builder()
+                .id(pointer.getBookingId())
+                .start(pointer.getStart())
+                .end(pointer.getEnd())
+                .bookerId(pointer.getBookerId())
+                .build();
+    }
+
+    public static BookingPointer toBookingPointer(Booking booking) {
+        return BookingPointer.builder()
+                .bookingId(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
 }
\ No newline at end of file
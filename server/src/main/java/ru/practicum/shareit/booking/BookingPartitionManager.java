@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitions.enabled", havingValue = "true")
+public class BookingPartitionManager {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION = Pattern.compile("bookings_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final Duration archiveHorizon;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   @Value("${shareit.booking.partitions.months-ahead}") int monthsAhead,
+                                   @Value("${shareit.booking.archive.horizon}") Duration archiveHorizon) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveHorizon = archiveHorizon;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partitions.cron}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        dropArchivedPartitions(YearMonth.from(LocalDateTime.now().minus(archiveHorizon)));
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "bookings_p" + month.format(SUFFIX);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("select pg_advisory_xact_lock(hashtext('bookings_partitions'))");
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name))) {
+                return;
+            }
+            jdbcTemplate.execute("create table " + name + " (like bookings including defaults including constraints)");
+            jdbcTemplate.execute("alter table " + name + " add constraint ex_" + name + "_item_period " +
+                    "exclude using gist (item_id with =, tsrange(start_date, end_date) with &&) " +
+                    "where (status in ('WAITING', 'APPROVED'))");
+            int moved = jdbcTemplate.update("with moved as (delete from bookings_default " +
+                    "where start_date >= ? and start_date < ? returning *) insert into " + name + " select * from moved", from, to);
+            jdbcTemplate.execute(String.format("alter table bookings attach partition %s for values from ('%s') to ('%s')",
+                    name, from, to));
+            log.info("created booking partition {}, moved {} rows from default partition", name, moved);
+        });
+    }
+
+    private void dropArchivedPartitions(YearMonth before) {
+        List<String> partitions = jdbcTemplate.queryForList("select c.relname from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid where i.inhparent = 'bookings'::regclass", String.class);
+        for (String name : partitions) {
+            Matcher matcher = PARTITION.matcher(name);
+            if (!matcher.matches()
+                    || !YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(before)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("lock table " + name + " in access exclusive mode");
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select not exists (select 1 from " + name + ")", Boolean.class))) {
+                    jdbcTemplate.execute("drop table " + name);
+                    log.info("dropped archived booking partition {}", name);
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -1,40 +1,90 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingStateRepository {
 
-    Page<Booking> findAllByBookerIdOrderByStartDesc(long bookerId, Pageable pageable);
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?4, b.version = b.version + 1 where b.id = ?1 and b.status in ?3 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(long bookingId, long ownerId, Collection<Status> expected, Status status);
 
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<Booking> findByStatusAndStartBeforeOrderByStartAsc(Status status, LocalDateTime dateTime, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(long bookerId, LocalDateTime dateTime, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<Booking> findByEndBeforeOrderByEndAsc(LocalDateTime dateTime, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long bookerId, LocalDateTime dateTime, Pageable pageable);
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?2, b.version = b.version + 1 where b.id in ?1")
+    int updateStatus(Collection<Long> bookingIds, Status status);
 
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long bookerId, Status status, Pageable pageable);
+    Optional<Booking> findFirstByStatusAndStartBeforeOrderByStartAsc(Status status, LocalDateTime dateTime);
 
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(long ownerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "booker"})
+    Optional<Booking> findDetailedById(long bookingId);
 
-    Page<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(long itemId, long bookerId, Status status, LocalDateTime dateTime);
 
-    Page<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(long ownerId, LocalDateTime dateTime, Pageable pageable);
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId from Booking b " +
+            "where b.id > ?3 and b.status = ?1 and b.end < ?2 order by b.id")
+    List<BookerItem> findEndedByStatus(Status status, LocalDateTime dateTime, long afterId, Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(long ownerId, LocalDateTime dateTime, Pageable pageable);
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId from Booking b " +
+            "where b.status = ?1 and b.end >= ?2 and b.end < ?3")
+    List<BookerItem> findEndedByStatusBetween(Status status, LocalDateTime from, LocalDateTime to);
 
-    Page<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(long ownerId, Status status, Pageable pageable);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<Status> statuses, LocalDateTime end, LocalDateTime start);
 
-    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(long itemId, Status status, LocalDateTime dateTime);
+    boolean existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(long itemId, long bookingId, Collection<Status> statuses,
+                                                                       LocalDateTime end, LocalDateTime start);
 
-    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(long itemId, Status status, LocalDateTime dateTime);
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")})
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = ?1 order by b.start desc, b.id desc")
+    Stream<Booking> streamByOwnerId(long ownerId);
 
-    Optional<Booking> findFirstByItemIdAndBookerIdAndStatusAndEndBefore(long itemId, long bookerId, Status status, LocalDateTime dateTime);
+    @Query("select b.booker.id as userId, sum(case when b.status = ?2 then 1 else 0 end) as waiting, " +
+            "sum(case when b.start <= ?3 and b.end > ?3 then 1 else 0 end) as current, " +
+            "sum(case when b.start > ?3 then 1 else 0 end) as future " +
+            "from Booking b where b.booker.id in ?1 group by b.booker.id")
+    List<BookingCounts> countByBookerIdIn(Collection<Long> userIds, Status waiting, LocalDateTime dateTime);
+
+    @Query("select i.owner.id as userId, sum(case when b.status = ?2 then 1 else 0 end) as waiting, " +
+            "sum(case when b.start <= ?3 and b.end > ?3 then 1 else 0 end) as current, " +
+            "sum(case when b.start > ?3 then 1 else 0 end) as future " +
+            "from Booking b join b.item i where i.owner.id in ?1 group by i.owner.id")
+    List<BookingCounts> countByOwnerIdIn(Collection<Long> userIds, Status waiting, LocalDateTime dateTime);
+
+    @Query(value = "select * from (select b.*, row_number() over (partition by b.item_id, b.start_date < :now " +
+            "order by case when b.start_date < :now then b.start_date end desc, b.start_date) as rn " +
+            "from bookings b where b.item_id in (:itemIds) and b.status = :status and b.start_date <> :now) ranked " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("status") String status,
+                                            @Param("now") LocalDateTime now);
+
+    List<Booking> findByItemIdAndStatusInAndEndAfter(long itemId, Collection<Status> statuses, LocalDateTime dateTime);
+
+    List<Booking> findByItemIdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds, Collection<Status> statuses,
+                                                                      LocalDateTime end, LocalDateTime start);
 }
\ No newline at end of file
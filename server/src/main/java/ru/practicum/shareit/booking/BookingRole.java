@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingRole {
+    BOOKER, OWNER
+}
\ No newline at end of file
@@ -6,7 +6,7 @@ import ru.practicum.shareit.error.exception.NotProcessStatusException;
 
 @Getter
 public enum BookingState {
-    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
+    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED, EXPIRED;
 
     public static BookingState getEnumValue(String state) {
         try {
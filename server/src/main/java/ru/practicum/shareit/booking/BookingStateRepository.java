@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface BookingStateRepository {
+
+    Slice<Booking> findByState(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                               BookingCursor cursor, Pageable pageable);
+
+    int copyToArchive(Collection<Long> bookingIds);
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class BookingStateRepositoryImpl implements BookingStateRepository {
+
+    private static final Set<BookingState> ARCHIVED_STATES = EnumSet.of(BookingState.ALL, BookingState.PAST,
+            BookingState.REJECTED, BookingState.EXPIRED);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${shareit.booking.archive.horizon}")
+    private Duration archiveHorizon;
+
+    @Value("${shareit.booking.archive.lookup-ttl}")
+    private Duration lookupTtl;
+
+    @Value("${shareit.booking.archive.lookup-size}")
+    private long lookupSize;
+
+    private Cache<List<Object>, Boolean> archiveLookups;
+
+    @PostConstruct
+    void init() {
+        archiveLookups = Caffeine.newBuilder()
+                .maximumSize(lookupSize)
+                .expireAfterWrite(lookupTtl)
+                .build();
+    }
+
+    @Override
+    public Slice<Booking> findByState(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                      BookingCursor cursor, Pageable pageable) {
+        int first = cursor == null ? (int) pageable.getOffset() : 0;
+        int size = pageable.getPageSize();
+        List<Booking> content = select(Booking.class, role, userId, state, now, cursor, first, size + 1);
+        if (ARCHIVED_STATES.contains(state) && (content.size() <= size
+                || content.get(size).getStart().isBefore(now.minus(archiveHorizon)))
+                && reachesArchive(role, userId, now)) {
+            content = mergeArchive(content, role, userId, state, now, cursor, first, size + 1);
+        }
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public int copyToArchive(Collection<Long> bookingIds) {
+        return entityManager.createNativeQuery("insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+                        "select id, start_date, end_date, item_id, booker_id, status from bookings where id in (?1)")
+                .setParameter(1, bookingIds)
+                .executeUpdate();
+    }
+
+    private boolean reachesArchive(BookingRole role, long userId, LocalDateTime now) {
+        return archiveLookups.get(List.of(role, userId), key -> {
+            String user = role == BookingRole.BOOKER ? "booker" : "item.owner";
+            return !entityManager.createQuery("select u.id from User u where u.id = ?1 and (" +
+                            "exists (select a.id from ArchivedBooking a where a." + user + ".id = u.id) or " +
+                            "exists (select b.id from Booking b where b." + user + ".id = u.id and b.end < ?2))", Long.class)
+                    .setParameter(1, userId)
+                    .setParameter(2, now.plus(lookupTtl).minus(archiveHorizon))
+                    .getResultList()
+                    .isEmpty();
+        });
+    }
+
+    private List<Booking> mergeArchive(List<Booking> content, BookingRole role, long userId, BookingState state,
+                                       LocalDateTime now, BookingCursor cursor, int first, int max) {
+        List<Booking> merged = new ArrayList<>(first == 0 ? content
+                : select(Booking.class, role, userId, state, now, cursor, 0, first + max));
+        for (ArchivedBooking archivedBooking : select(ArchivedBooking.class, role, userId, state, now, cursor, 0, first + max)) {
+            merged.add(BookingMapper.returnBooking(archivedBooking));
+        }
+        merged.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+        return merged.subList(Math.min(first, merged.size()), Math.min(first + max, merged.size()));
+    }
+
+    private <T> List<T> select(Class<T> type, BookingRole role, long userId, BookingState state, LocalDateTime now,
+                               BookingCursor cursor, int first, int max) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        Join<T, ?> item = fetchDetails(booking);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+        boolean ascending = state == BookingState.CURRENT;
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(role == BookingRole.BOOKER
+                ? cb.equal(booking.get("booker").get("id"), userId)
+                : cb.equal(item.get("owner").get("id"), userId));
+        predicates.addAll(statePredicates(cb, booking, state, now));
+        if (cursor != null) {
+            predicates.add(ascending
+                    ? cb.or(cb.greaterThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.greaterThan(id, cursor.getId())))
+                    : cb.or(cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending ? cb.asc(start) : cb.desc(start), ascending ? cb.asc(id) : cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    private <T> Join<T, ?> fetchDetails(Root<T> booking) {
+        Fetch<T, ?> item = booking.fetch("item");
+        item.fetch("owner");
+        item.fetch("request", JoinType.LEFT);
+        booking.fetch("booker");
+        return (Join<T, ?>) item;
+    }
+
+    private <T> List<Predicate> statePredicates(CriteriaBuilder cb, Root<T> booking, BookingState state, LocalDateTime now) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        List<Predicate> predicates = new ArrayList<>();
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), Status.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), Status.REJECTED));
+                break;
+            case EXPIRED:
+                predicates.add(cb.equal(booking.get("status"), Status.EXPIRED));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
-    WAITING, APPROVED, REJECTED, CANCELED
+    WAITING, APPROVED, REJECTED, CANCELED, EXPIRED;
+
+    public static final Set<Status> BLOCKING = Collections.unmodifiableSet(EnumSet.of(WAITING, APPROVED));
+
+    public static final Set<Status> FINAL = Collections.unmodifiableSet(EnumSet.of(CANCELED, EXPIRED));
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.BookingRole;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "booking_counters")
+@IdClass(BookingCounter.Key.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class BookingCounter {
+
+    @Id
+    @Column(name = "user_id")
+    @EqualsAndHashCode.Include
+    Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    @EqualsAndHashCode.Include
+    BookingRole role;
+
+    @Column(name = "waiting_count", nullable = false)
+    long waiting;
+
+    @Column(name = "current_count", nullable = false)
+    long current;
+
+    @Column(name = "future_count", nullable = false)
+    long future;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+
+        Long userId;
+        BookingRole role;
+    }
+}
\ No newline at end of file
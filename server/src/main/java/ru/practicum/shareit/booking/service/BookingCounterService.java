@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingCounterService {
+
+    BookingCountsDto getCounts(long userId, BookingRole role);
+
+    void bookingsCreated(Collection<Booking> bookings);
+
+    void bookingsResolved(Collection<Booking> bookings);
+
+    void bookingsExpired(Collection<Long> bookingIds);
+
+    void advance(LocalDateTime now);
+
+    List<Long> findCountedUserIds(long afterUserId, int limit);
+
+    int reconcile(Collection<Long> userIds);
+}
\ No newline at end of file
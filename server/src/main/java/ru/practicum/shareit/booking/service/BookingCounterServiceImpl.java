@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCounterRepository;
+import ru.practicum.shareit.booking.BookingCounts;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingCounterServiceImpl implements BookingCounterService {
+
+    private static final String SHIFT = "update booking_counters c set %1$s = %1$s + :sign * " +
+            "(select count(*) from bookings b %2$s where %3$s = c.user_id and %4$s) " +
+            "where c.role = :role and c.user_id in (select %3$s from bookings b %2$s where %4$s)";
+    private static final String STARTED = "b.start_date > :from and b.start_date <= :to";
+    private static final String ENDED = "b.start_date <= :from and b.end_date > :from and b.end_date <= :to";
+
+    private final BookingCounterRepository bookingCounterRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookingCountsDto getCounts(long userId, BookingRole role) {
+
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с ID %d не найден", userId));
+        }
+        BookingCounter.Key key = new BookingCounter.Key(userId, role);
+        BookingCounter counter = bookingCounterRepository.findById(key).orElseGet(() -> {
+            BookingCounter counted = count(role, List.of(userId), clock(false)).getOrDefault(userId, empty(userId, role));
+            try {
+                return bookingCounterRepository.saveAndFlush(counted);
+            } catch (DataIntegrityViolationException e) {
+                return bookingCounterRepository.findById(key).orElseThrow();
+            }
+        });
+        return BookingMapper.toBookingCountsDto(counter);
+    }
+
+    @Override
+    @Transactional
+    public void bookingsCreated(Collection<Booking> bookings) {
+        shift(bookings, 1, 1);
+    }
+
+    @Override
+    @Transactional
+    public void bookingsResolved(Collection<Booking> bookings) {
+        shift(bookings, -1, 0);
+    }
+
+    @Override
+    @Transactional
+    public void bookingsExpired(Collection<Long> bookingIds) {
+
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> parameters = Map.of("ids", bookingIds);
+        for (BookingRole role : BookingRole.values()) {
+            update(role, "waiting_count", -1, "b.id in (:ids)", parameters);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void advance(LocalDateTime now) {
+
+        LocalDateTime from = clock(true);
+        if (!from.isBefore(now)) {
+            return;
+        }
+        Map<String, Object> parameters = Map.of("from", from, "to", now);
+        for (BookingRole role : BookingRole.values()) {
+            update(role, "future_count", -1, STARTED, parameters);
+            update(role, "current_count", 1, STARTED + " and b.end_date > :to", parameters);
+            update(role, "current_count", -1, ENDED, parameters);
+        }
+        jdbcTemplate.update("update booking_counter_clock set advanced_to = :to where id = 1", parameters);
+    }
+
+    @Override
+    public List<Long> findCountedUserIds(long afterUserId, int limit) {
+        return bookingCounterRepository.findUserIds(afterUserId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public int reconcile(Collection<Long> userIds) {
+
+        LocalDateTime at = clock(true);
+        Map<BookingRole, Map<Long, BookingCounter>> actual = Map.of(
+                BookingRole.BOOKER, count(BookingRole.BOOKER, userIds, at),
+                BookingRole.OWNER, count(BookingRole.OWNER, userIds, at));
+        int repaired = 0;
+        for (BookingCounter counter : bookingCounterRepository.findByUserIdIn(userIds)) {
+            BookingCounter expected = actual.get(counter.getRole())
+                    .getOrDefault(counter.getUserId(), empty(counter.getUserId(), counter.getRole()));
+            if (counter.getWaiting() != expected.getWaiting() || counter.getCurrent() != expected.getCurrent()
+                    || counter.getFuture() != expected.getFuture()) {
+                log.warn("repair {} counters of user {}: {} -> {}", counter.getRole(), counter.getUserId(), counter, expected);
+                counter.setWaiting(expected.getWaiting());
+                counter.setCurrent(expected.getCurrent());
+                counter.setFuture(expected.getFuture());
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private void shift(Collection<Booking> bookings, long waiting, long future) {
+        for (Map.Entry<Long, Long> booker : bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getBooker().getId(), Collectors.counting())).entrySet()) {
+            bookingCounterRepository.increment(booker.getKey(), BookingRole.BOOKER, waiting * booker.getValue(),
+                    future * booker.getValue());
+        }
+        for (Map.Entry<Long, Long> owner : bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getOwner().getId(), Collectors.counting())).entrySet()) {
+            bookingCounterRepository.increment(owner.getKey(), BookingRole.OWNER, waiting * owner.getValue(),
+                    future * owner.getValue());
+        }
+    }
+
+    private void update(BookingRole role, String column, long sign, String condition, Map<String, Object> parameters) {
+        String join = role == BookingRole.OWNER ? "join items i on i.id = b.item_id" : "";
+        String userColumn = role == BookingRole.OWNER ? "i.owner_id" : "b.booker_id";
+        Map<String, Object> values = new HashMap<>(parameters);
+        values.put("sign", sign);
+        values.put("role", role.name());
+        jdbcTemplate.update(String.format(SHIFT, column, join, userColumn, condition), values);
+    }
+
+    private LocalDateTime clock(boolean lock) {
+        return jdbcTemplate.queryForObject("select advanced_to from booking_counter_clock where id = 1" + (lock ? " for update" : ""),
+                Map.of(), LocalDateTime.class);
+    }
+
+    private Map<Long, BookingCounter> count(BookingRole role, Collection<Long> userIds, LocalDateTime at) {
+        List<BookingCounts> counts = role == BookingRole.OWNER
+                ? bookingRepository.countByOwnerIdIn(userIds, Status.WAITING, at)
+                : bookingRepository.countByBookerIdIn(userIds, Status.WAITING, at);
+        return counts.stream()
+                .map(count -> new BookingCounter(count.getUserId(), role, count.getWaiting(), count.getCurrent(), count.getFuture()))
+                .collect(Collectors.toMap(BookingCounter::getUserId, Function.identity()));
+    }
+
+    private static BookingCounter empty(long userId, BookingRole role) {
+        return new BookingCounter(userId, role, 0, 0, 0);
+    }
+}
\ No newline at end of file
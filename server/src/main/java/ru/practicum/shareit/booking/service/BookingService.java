@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -10,11 +12,17 @@ public interface BookingService {
 
     OutputBookingDto addBooking(BookingDto bookingDto, long userId);
 
+    List<BookingBatchResultDto> addBookings(List<BookingDto> bookingDtos, long userId);
+
     OutputBookingDto approveBooking(long userId, long bookingId, Boolean approved);
 
+    int expireWaitingBookings(LocalDateTime now, int limit);
+
+    int archiveFinishedBookings(LocalDateTime before, int limit);
+
     OutputBookingDto getBookingById(long userId, long bookingId);
 
-    List<OutputBookingDto> getBookingsByBookerId(long userId, String state, Integer from, Integer size);
+    List<OutputBookingDto> getBookingsByBookerId(long userId, String state, Integer from, Integer size, String after);
 
-    List<OutputBookingDto> getBookingsForItemsByOwnerId(long userId, String state, Integer from, Integer size);
+    List<OutputBookingDto> getBookingsForItemsByOwnerId(long userId, String state, Integer from, Integer size, String after);
 }
\ No newline at end of file
@@ -2,26 +2,47 @@ package ru.practicum.shareit.booking.service;
 
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingEvent;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.BookingConflictException;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.item.service.ItemOwnershipService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -29,63 +50,189 @@ import java.util.List;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingCounterService bookingCounterService;
+    private final ItemBookingPointerService itemBookingPointerService;
+    private final ItemOwnershipService itemOwnershipService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     @Override
     @Transactional
     public OutputBookingDto addBooking(BookingDto bookingDto, long userId) {
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findLockedById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException(String.format("Позиция с ID %d не найдена", bookingDto.getItemId())));
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с ID %d не найден", userId)));
         Booking booking = BookingMapper.returnBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(user);
-        if (item.getOwner().equals(user)) {
-            throw new NotFoundException(String.format("Владелец с ID %d не может бронировать свой предмет", userId));
+        checkBooking(booking);
+        checkOverlapping(booking);
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isExclusionViolation(e)) {
+                throw e;
+            }
+            throw overlapping(booking);
         }
-        if (!item.getAvailable()) {
-            throw new ValidationException(String.format("Позиция с ID %d уже забронирована", item.getId()));
+        bookingCounterService.bookingsCreated(List.of(booking));
+        eventPublisher.publishEvent(BookingEvent.of(booking));
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addBookings(List<BookingDto> bookingDtos, long userId) {
+
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format("Пакет должен содержать от 1 до %d броней", MAX_BATCH_SIZE));
         }
-        if (booking.getStart().isAfter(booking.getEnd())) {
-            throw new ValidationException("Начало не может быть после конца");
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с ID %d не найден", userId)));
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Item> items = itemRepository.findLockedByIdInOrderById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> taken = findTaken(bookingDtos, items.keySet());
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                Booking booking = BookingMapper.returnBooking(bookingDto);
+                checkBatchBooking(booking, bookingDto.getItemId());
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(String.format("Позиция с ID %d не найдена", bookingDto.getItemId()));
+                }
+                booking.setItem(item);
+                booking.setBooker(user);
+                checkBooking(booking);
+                List<Booking> itemBookings = taken.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (itemBookings.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                        && other.getEnd().isAfter(booking.getStart()))) {
+                    throw overlapping(booking);
+                }
+                if (Status.BLOCKING.contains(booking.getStatus())) {
+                    itemBookings.add(booking);
+                }
+                accepted.add(booking);
+                results.add(BookingBatchResultDto.builder().index(i).build());
+            } catch (NotFoundException | ValidationException | BookingConflictException e) {
+                results.add(BookingBatchResultDto.builder().index(i).error(e.getMessage()).build());
+            }
         }
-        if (booking.getStart().isEqual(booking.getEnd())) {
-            throw new ValidationException("Начало не может совпадать с концом");
+        try {
+            bookingRepository.saveAllAndFlush(accepted);
+        } catch (DataIntegrityViolationException e) {
+            if (!isExclusionViolation(e)) {
+                throw e;
+            }
+            throw new BookingConflictException("Пакет пересекается с существующими бронями");
         }
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+        bookingCounterService.bookingsCreated(accepted);
+        accepted.forEach(booking -> eventPublisher.publishEvent(BookingEvent.of(booking)));
+        Iterator<Booking> saved = accepted.iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getError() == null) {
+                result.setBooking(BookingMapper.toBookingDto(saved.next()));
+            }
+        }
+        return results;
     }
 
     @Override
     @Transactional
     public OutputBookingDto approveBooking(long userId, long bookingId, Boolean approved) {
 
-        checkBooking(bookingId);
-        Booking booking = bookingRepository.findById(bookingId).get();
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, userId, Set.of(Status.WAITING), status) == 1) {
+            Booking booking = findBooking(bookingId);
+            bookingCounterService.bookingsResolved(List.of(booking));
+            return decided(booking);
+        }
+        Booking booking = findBooking(bookingId);
         if (booking.getItem().getOwner().getId() != userId) {
             throw new NotFoundException(String.format("Только владелец с ID %d предмета может изменить статус брони", userId));
         }
+        if (Status.FINAL.contains(booking.getStatus())) {
+            throw new ValidationException(String.format("Бронь с ID %d уже завершена со статусом %s", bookingId,
+                    booking.getStatus()));
+        }
+        if (approved && booking.getStatus() == Status.APPROVED) {
+            throw new ValidationException("Некорректный статус");
+        }
+        try {
+            if (bookingRepository.updateStatus(bookingId, userId, Set.of(booking.getStatus()), status) == 0) {
+                throw new BookingConflictException(String.format("Бронь с ID %d изменена параллельным запросом", bookingId));
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (!isExclusionViolation(e)) {
+                throw e;
+            }
+            throw overlapping(booking);
+        }
         if (approved) {
-            if (booking.getStatus().equals(Status.APPROVED)) {
-                throw new ValidationException("Некорректный статус");
+            itemRepository.lockById(booking.getItem().getId());
+            if (bookingRepository.existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(booking.getItem().getId(),
+                    bookingId, Status.BLOCKING, booking.getEnd(), booking.getStart())) {
+                throw overlapping(booking);
             }
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
         }
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+        return decided(findBooking(bookingId));
+    }
+
+    @Override
+    @Transactional
+    public int expireWaitingBookings(LocalDateTime now, int limit) {
+
+        List<Booking> bookings = bookingRepository.findByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, now,
+                PageRequest.of(0, limit));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        List<Long> bookingIds = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        int expired = bookingRepository.updateStatus(bookingIds, Status.EXPIRED);
+        bookingCounterService.bookingsExpired(bookingIds);
+        bookings.forEach(booking -> eventPublisher.publishEvent(BookingEvent.of(booking, Status.EXPIRED)));
+        return expired;
+    }
+
+    @Override
+    @Transactional
+    public int archiveFinishedBookings(LocalDateTime before, int limit) {
+
+        List<Long> bookingIds = bookingRepository.findByEndBeforeOrderByEndAsc(before, PageRequest.of(0, limit)).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.copyToArchive(bookingIds);
+        bookingRepository.deleteAllByIdInBatch(bookingIds);
+        return bookingIds.size();
     }
 
     @Override
     @Transactional(readOnly = true)
     public OutputBookingDto getBookingById(long userId, long bookingId) {
 
-        checkBooking(bookingId);
-        Booking booking = bookingRepository.findById(bookingId).get();
+        Booking booking = bookingRepository.findDetailedById(bookingId)
+                .or(() -> archivedBookingRepository.findDetailedById(bookingId).map(BookingMapper::returnBooking))
+                .orElseThrow(() -> new NotFoundException(String.format("Бронь с ID %d не найдена", bookingId)));
         checkUser(userId);
         if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
             return BookingMapper.toBookingDto(booking);
@@ -96,67 +243,29 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OutputBookingDto> getBookingsByBookerId(long userId, String state, Integer from, Integer size) {
+    public List<OutputBookingDto> getBookingsByBookerId(long userId, String state, Integer from, Integer size, String after) {
 
         checkUser(userId);
         PageRequest pageRequest = checkPageSize(from, size);
-        Page<Booking> bookings = null;
         BookingState bookingState = BookingState.getEnumValue(state);
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(userId, LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageRequest);
-                break;
-        }
-        return BookingMapper.returnBookingDtoList(bookings);
+        BookingCursor cursor = after == null ? null : BookingCursor.parse(after);
+        return BookingMapper.returnBookingDtoList(bookingRepository.findByState(BookingRole.BOOKER, userId, bookingState,
+                LocalDateTime.now(), cursor, pageRequest));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OutputBookingDto> getBookingsForItemsByOwnerId(long userId, String state, Integer from, Integer size) {
+    public List<OutputBookingDto> getBookingsForItemsByOwnerId(long userId, String state, Integer from, Integer size, String after) {
 
         checkUser(userId);
         PageRequest pageRequest = checkPageSize(from, size);
-        if (itemRepository.findByOwnerIdOrderById(userId).isEmpty()) {
+        if (!itemOwnershipService.ownsAnyItems(userId)) {
             throw new ValidationException(String.format("У пользователя c id = %d нет позиций для брони", userId));
         }
-        Page<Booking> bookings = null;
         BookingState bookingState = BookingState.getEnumValue(state);
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(userId, LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageRequest);
-                break;
-        }
-        return BookingMapper.returnBookingDtoList(bookings);
+        BookingCursor cursor = after == null ? null : BookingCursor.parse(after);
+        return BookingMapper.returnBookingDtoList(bookingRepository.findByState(BookingRole.OWNER, userId, bookingState,
+                LocalDateTime.now(), cursor, pageRequest));
     }
 
     private void checkUser(long userId) {
@@ -165,10 +274,87 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private void checkBooking(long bookingId) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw new NotFoundException(String.format("Бронь с ID %d не найдена", bookingId));
+    private void checkBooking(Booking booking) {
+        Item item = booking.getItem();
+        if (item.getOwner().getId().equals(booking.getBooker().getId())) {
+            throw new NotFoundException(String.format("Владелец с ID %d не может бронировать свой предмет", booking.getBooker().getId()));
+        }
+        if (!item.getAvailable()) {
+            throw new ValidationException(String.format("Позиция с ID %d уже забронирована", item.getId()));
+        }
+        if (booking.getStart().isAfter(booking.getEnd())) {
+            throw new ValidationException("Начало не может быть после конца");
+        }
+        if (booking.getStart().isEqual(booking.getEnd())) {
+            throw new ValidationException("Начало не может совпадать с концом");
+        }
+    }
+
+    private void checkBatchBooking(Booking booking, Long itemId) {
+        if (itemId == null) {
+            throw new ValidationException("Не указана позиция для брони");
+        }
+        if (booking.getStart() == null || booking.getEnd() == null) {
+            throw new ValidationException("Начало и конец брони должны быть указаны");
         }
+        if (booking.getStart().isBefore(LocalDateTime.now())) {
+            throw new ValidationException("Начало не может быть в прошлом");
+        }
+    }
+
+    private Map<Long, List<Booking>> findTaken(List<BookingDto> bookingDtos, Collection<Long> itemIds) {
+        LocalDateTime from = bookingDtos.stream()
+                .map(BookingDto::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime to = bookingDtos.stream()
+                .map(BookingDto::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return new HashMap<>();
+        }
+        return bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(itemIds, Status.BLOCKING, to, from)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), HashMap::new, Collectors.toList()));
+    }
+
+    private void checkOverlapping(Booking booking) {
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(booking.getItem().getId(), Status.BLOCKING,
+                booking.getEnd(), booking.getStart())) {
+            throw overlapping(booking);
+        }
+    }
+
+    /**
+     * Only the ex_*_item_period exclusion constraints of the PostgreSQL partitions mean an overlap; foreign key,
+     * not-null and other violations keep their own meaning.
+     */
+    private static boolean isExclusionViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BookingConflictException overlapping(Booking booking) {
+        return new BookingConflictException(String.format("Позиция с ID %d уже забронирована на период с %s по %s",
+                booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    private OutputBookingDto decided(Booking booking) {
+        itemBookingPointerService.refresh(List.of(booking.getItem().getId()), LocalDateTime.now());
+        eventPublisher.publishEvent(BookingEvent.of(booking));
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    private Booking findBooking(long bookingId) {
+        return bookingRepository.findDetailedById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронь с ID %d не найдена", bookingId)));
     }
 
     private PageRequest checkPageSize(Integer from, Integer size) {
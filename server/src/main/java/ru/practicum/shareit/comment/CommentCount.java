@@ -0,0 +1,8 @@
+package ru.practicum.shareit.comment;
+
+public interface CommentCount {
+
+    Long getItemId();
+
+    Long getCount();
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.comment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookerItem;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@Slf4j
+@Component
+public class CommentEligibility {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final LongPairSet index;
+    private final Counter rejected;
+    private volatile LocalDateTime loadedUntil;
+
+    public CommentEligibility(BookingRepository bookingRepository, ArchivedBookingRepository archivedBookingRepository,
+                              MeterRegistry registry, @Value("${shareit.comment.eligibility.max-pairs}") int maxPairs) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.index = new LongPairSet(maxPairs);
+        this.rejected = Counter.builder("shareit.comments.eligibility.rejected")
+                .description("Completed bookings not indexed because the eligibility index is full")
+                .register(registry);
+        Gauge.builder("shareit.comments.eligibility.size", index, LongPairSet::size)
+                .description("Booker and item pairs known to have a completed approved booking")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void build() {
+        LocalDateTime now = LocalDateTime.now();
+        load(now, (afterId, page) -> archivedBookingRepository.findEndedByStatus(Status.APPROVED, now, afterId, page));
+        load(now, (afterId, page) -> bookingRepository.findEndedByStatus(Status.APPROVED, now, afterId, page));
+        loadedUntil = now;
+        log.info("built comment eligibility index of {} pairs", index.size());
+    }
+
+    public boolean isEligible(long bookerId, long itemId, LocalDateTime now) {
+        if (index.contains(bookerId, itemId)) {
+            return true;
+        }
+        if (bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, bookerId, Status.APPROVED, now)
+                || archivedBookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, bookerId, Status.APPROVED, now)) {
+            put(bookerId, itemId);
+            return true;
+        }
+        return false;
+    }
+
+    public int refresh(LocalDateTime now) {
+        List<BookerItem> ended = bookingRepository.findEndedByStatusBetween(Status.APPROVED, loadedUntil, now);
+        ended.forEach(booking -> put(booking.getBookerId(), booking.getItemId()));
+        loadedUntil = now;
+        return ended.size();
+    }
+
+    private void load(LocalDateTime now, BiFunction<Long, PageRequest, List<BookerItem>> finder) {
+        List<BookerItem> bookings = finder.apply(0L, PageRequest.of(0, BATCH_SIZE));
+        while (!bookings.isEmpty()) {
+            bookings.forEach(booking -> put(booking.getBookerId(), booking.getItemId()));
+            bookings = finder.apply(bookings.get(bookings.size() - 1).getId(), PageRequest.of(0, BATCH_SIZE));
+        }
+    }
+
+    private void put(long bookerId, long itemId) {
+        if (!index.add(bookerId, itemId)) {
+            rejected.increment();
+        }
+    }
+}
\ No newline at end of file
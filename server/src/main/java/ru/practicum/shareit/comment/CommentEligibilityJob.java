@@ -0,0 +1,33 @@
+package ru.practicum.shareit.comment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.comment.eligibility.enabled", havingValue = "true")
+public class CommentEligibilityJob {
+
+    private final CommentEligibility commentEligibility;
+    private final Counter indexed;
+
+    public CommentEligibilityJob(CommentEligibility commentEligibility, MeterRegistry registry) {
+        this.commentEligibility = commentEligibility;
+        this.indexed = Counter.builder("shareit.comments.eligibility.indexed")
+                .description("Approved bookings that ended and were added to the eligibility index")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.comment.eligibility.delay}")
+    public void refresh() {
+        int count = commentEligibility.refresh(LocalDateTime.now());
+        indexed.increment(count);
+        log.info("indexed {} ended approved bookings for comments", count);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.comment;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.comment.model.Comment;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CommentEvent {
+
+    Long commentId;
+    Long itemId;
+
+    public static CommentEvent of(Comment comment) {
+        return new CommentEvent(comment.getId(), comment.getItem().getId());
+    }
+}
\ No newline at end of file
@@ -27,6 +27,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto returnCommentDto(ItemComment comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .authorName(comment.getAuthorName())
+                .build();
+    }
+
     public static Comment returnComment(CommentDto commentDto, Item item, User user, LocalDateTime dateTime) {
         return Comment.builder()
                 .text(commentDto.getText())
@@ -1,13 +1,38 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @Query("select c from Comment c join fetch c.author where c.item.id = ?1 order by c.created desc, c.id desc")
+    List<Comment> findNewestByItemId(long itemId, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.author where c.item.id = ?1 " +
+            "and (c.created < ?2 or c.created = ?2 and c.id < ?3) order by c.created desc, c.id desc")
+    List<Comment> findByItemIdBefore(long itemId, LocalDateTime created, long id, Pageable pageable);
+
+    Optional<Comment> findByIdAndItemId(long id, long itemId);
+
+    long countByItemId(long itemId);
+
+    @Query(value = "select id, item_id as itemId, text, author_name as authorName, created from (" +
+            "select c.id, c.item_id, c.text, u.name as author_name, c.created, row_number() over " +
+            "(partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c join users u on u.id = c.author_id where c.item_id in (:itemIds)) ranked " +
+            "where rn <= :limit order by item_id, created desc, id desc", nativeQuery = true)
+    List<ItemComment> findNewestByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("select c.item.id as itemId, count(c) as count from Comment c where c.item.id in ?1 group by c.item.id")
+    List<CommentCount> countByItemIdIn(Collection<Long> itemIds);
 }
\ No newline at end of file
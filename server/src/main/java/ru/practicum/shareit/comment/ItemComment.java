@@ -0,0 +1,16 @@
+package ru.practicum.shareit.comment;
+
+import java.time.LocalDateTime;
+
+public interface ItemComment {
+
+    Long getId();
+
+    Long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
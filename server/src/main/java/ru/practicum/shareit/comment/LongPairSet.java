@@ -0,0 +1,89 @@
+package ru.practicum.shareit.comment;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class LongPairSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] firsts = new long[INITIAL_CAPACITY];
+    private long[] seconds = new long[INITIAL_CAPACITY];
+    private BitSet used = new BitSet(INITIAL_CAPACITY);
+    private int size;
+
+    public LongPairSet(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean contains(long first, long second) {
+        lock.readLock().lock();
+        try {
+            return used.get(slot(first, second));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean add(long first, long second) {
+        lock.writeLock().lock();
+        try {
+            int slot = slot(first, second);
+            if (used.get(slot)) {
+                return true;
+            }
+            if (size >= maxSize) {
+                return false;
+            }
+            if (2 * (size + 1) > firsts.length) {
+                resize();
+                slot = slot(first, second);
+            }
+            put(slot, first, second);
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void resize() {
+        long[] oldFirsts = firsts;
+        long[] oldSeconds = seconds;
+        BitSet oldUsed = used;
+        firsts = new long[oldFirsts.length * 2];
+        seconds = new long[oldSeconds.length * 2];
+        used = new BitSet(firsts.length);
+        for (int i = oldUsed.nextSetBit(0); i >= 0; i = oldUsed.nextSetBit(i + 1)) {
+            put(slot(oldFirsts[i], oldSeconds[i]), oldFirsts[i], oldSeconds[i]);
+        }
+    }
+
+    private void put(int slot, long first, long second) {
+        firsts[slot] = first;
+        seconds[slot] = second;
+        used.set(slot);
+    }
+
+    private int slot(long first, long second) {
+        long hash = (first * 0x9E3779B97F4A7C15L + second) * 0xC2B2AE3D27D4EB4FL;
+        int mask = firsts.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used.get(slot) && (firsts[slot] != first || seconds[slot] != second)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.error.exception;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String s) {
+        super(s);
+    }
+}
\ No newline at end of file
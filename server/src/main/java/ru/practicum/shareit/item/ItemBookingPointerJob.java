@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.pointers.enabled", havingValue = "true")
+public class ItemBookingPointerJob {
+
+    private final ItemBookingPointerService itemBookingPointerService;
+    private final ItemCacheEvictor itemCacheEvictor;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter rolled;
+
+    public ItemBookingPointerJob(ItemBookingPointerService itemBookingPointerService, ItemCacheEvictor itemCacheEvictor,
+                                 MeterRegistry registry,
+                                 @Value("${shareit.item.pointers.batch-size}") int batchSize,
+                                 @Value("${shareit.item.pointers.max-batches}") int maxBatches) {
+        this.itemBookingPointerService = itemBookingPointerService;
+        this.itemCacheEvictor = itemCacheEvictor;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.rolled = Counter.builder("shareit.items.pointers.rolled")
+                .description("Items whose next approved booking started and was moved to last")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.pointers.delay}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> itemIds = itemBookingPointerService.rollForward(now, batchSize);
+            itemCacheEvictor.evictDetails(itemIds);
+            rolled.increment(itemIds.size());
+            total += itemIds.size();
+            if (itemIds.size() < batchSize) {
+                break;
+            }
+        }
+        log.info("rolled booking pointers forward for {} items", total);
+    }
+}
\ No newline at end of file
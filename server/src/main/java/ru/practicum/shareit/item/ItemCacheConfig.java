@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class ItemCacheConfig {
+
+    public static final String ITEM_DETAILS = "itemDetails";
+    public static final String ITEM_SEARCH = "itemSearch";
+    public static final String ITEM_OWNERS = "itemOwners";
+    public static final String ITEM_OWNER_USERS = "itemOwnerUsers";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.item.cache.details}") String detailsSpec,
+                                     @Value("${shareit.item.cache.search}") String searchSpec,
+                                     @Value("${shareit.item.cache.owners}") String ownersSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ITEM_DETAILS, Caffeine.from(detailsSpec).build());
+        cacheManager.registerCustomCache(ITEM_SEARCH, Caffeine.from(searchSpec).build());
+        cacheManager.registerCustomCache(ITEM_OWNERS, Caffeine.from(ownersSpec).build());
+        cacheManager.registerCustomCache(ITEM_OWNER_USERS, Caffeine.from(ownersSpec).build());
+        return cacheManager;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.comment.CommentEvent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class ItemCacheEvictor {
+
+    private static final int GENERATIONS = 1024;
+
+    private final Cache details;
+
+    /**
+     * Invalidation counters striped by item id. A reader remembers the counter before loading an item and
+     * drops its entry if an eviction bumped the counter meanwhile, so a view read before a commit cannot
+     * outlive the eviction that followed it.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+
+    public ItemCacheEvictor(CacheManager cacheManager) {
+        this.details = cacheManager.getCache(ItemCacheConfig.ITEM_DETAILS);
+    }
+
+    public long detailsGeneration(long itemId) {
+        return generations.get(slot(itemId));
+    }
+
+    public void putDetails(long itemId, Object value, long generation) {
+        details.put(itemId, value);
+        if (generations.get(slot(itemId)) != generation) {
+            details.evict(itemId);
+        }
+    }
+
+    public void evictDetails(Collection<Long> itemIds) {
+        itemIds.forEach(this::evict);
+    }
+
+    @TransactionalEventListener
+    public void onItemEvent(ItemEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentEvent(CommentEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        evict(event.getItemId());
+    }
+
+    private void evict(long itemId) {
+        generations.incrementAndGet(slot(itemId));
+        details.evict(itemId);
+    }
+
+    private static int slot(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), GENERATIONS);
+    }
+}
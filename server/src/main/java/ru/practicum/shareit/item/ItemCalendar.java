@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class ItemCalendar {
+
+    private final NavigableMap<LocalDateTime, Interval> busy = new TreeMap<>();
+    private final Map<Long, LocalDateTime> starts = new HashMap<>();
+
+    public synchronized int apply(BookingEvent event) {
+        int before = busy.size();
+        remove(event.getBookingId());
+        if (Status.BLOCKING.contains(event.getStatus())) {
+            Interval replaced = busy.put(event.getStart(), new Interval(event.getBookingId(), event.getStart(), event.getEnd()));
+            if (replaced != null) {
+                starts.remove(replaced.getBookingId());
+            }
+            starts.put(event.getBookingId(), event.getStart());
+        }
+        return busy.size() - before;
+    }
+
+    public synchronized List<Interval> busy(LocalDateTime from, LocalDateTime to) {
+        List<Interval> result = new ArrayList<>();
+        Map.Entry<LocalDateTime, Interval> previous = busy.lowerEntry(from);
+        if (previous != null && previous.getValue().getEnd().isAfter(from)) {
+            result.add(previous.getValue());
+        }
+        result.addAll(busy.subMap(from, true, to, false).values());
+        return result;
+    }
+
+    public synchronized int trim(LocalDateTime now) {
+        int before = busy.size();
+        while (!busy.isEmpty() && !busy.firstEntry().getValue().getEnd().isAfter(now)) {
+            starts.remove(busy.pollFirstEntry().getValue().getBookingId());
+        }
+        return busy.size() - before;
+    }
+
+    public synchronized int size() {
+        return busy.size();
+    }
+
+    private void remove(long bookingId) {
+        LocalDateTime start = starts.remove(bookingId);
+        if (start != null && busy.get(start).getBookingId() == bookingId) {
+            busy.remove(start);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class Interval {
+
+        long bookingId;
+        LocalDateTime start;
+        LocalDateTime end;
+    }
+}
\ No newline at end of file
@@ -2,14 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,6 +30,9 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemImporter itemImporter;
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
 
@@ -30,6 +43,14 @@ public class ItemController {
     }
 
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ItemImportResultDto> importItems(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream body) throws IOException {
+        log.info("import items of type {} for user {}", contentType, userId);
+        return ResponseEntity.ok(itemImporter.importItems(userId, MediaType.parseMediaType(contentType), body));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> changeItem(@PathVariable Long itemId, @RequestHeader(HEADER_USER_ID) Long userId,
                                               @RequestBody ItemDto itemDto) {
@@ -43,6 +64,14 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemById(itemId, userId));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<AvailabilityDto> getAvailability(@PathVariable Long itemId,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("get availability of item {} from {} to {}", itemId, from, to);
+        return ResponseEntity.ok(itemAvailabilityService.getAvailability(itemId, from, to));
+    }
+
     @GetMapping
     public ResponseEntity<List<ItemDto>> getAllItems(@RequestHeader(HEADER_USER_ID) Long userId,
                                                      @RequestParam(required = false, defaultValue = "0") Integer from,
@@ -59,6 +88,20 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemsByKeyword(text, from, size));
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(required = false, defaultValue = "10") Integer size) {
+        log.info("suggest item names for prefix: {}", prefix);
+        return ResponseEntity.ok(itemNameSuggester.suggest(prefix, size));
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) Long after,
+                                                        @RequestParam(required = false, defaultValue = "10") Integer size) {
+        log.info("get comments of item {} after {}", itemId, after);
+        return ResponseEntity.ok(itemService.getComments(itemId, after, size));
+    }
 
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<CommentDto> postComment(@RequestHeader(HEADER_USER_ID) Long userId, @PathVariable Long itemId,
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemEvent {
+
+    Long itemId;
+    String name;
+    String description;
+    Boolean available;
+    Long version;
+
+    public static ItemEvent of(Item item) {
+        return new ItemEvent(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getVersion());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,279 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestAnswerEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private static final int MAX_ERRORS = 100;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader reader;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter imported;
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository, UserRepository userRepository,
+                        ItemRequestRepository itemRequestRepository, EntityManager entityManager,
+                        ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager, MeterRegistry registry,
+                        @Value("${shareit.item.import.batch-size}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.reader = objectMapper.readerFor(ItemDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imported = Counter.builder("shareit.items.imported")
+                .description("Items created by bulk import")
+                .register(registry);
+        this.batchSize = batchSize;
+    }
+
+    public ItemImportResultDto importItems(long userId, MediaType contentType, InputStream body) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с ID %d не найден", userId));
+        }
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ItemImportResultDto result = ItemImportResultDto.builder().errors(new ArrayList<>()).build();
+        long lineNumber = 0;
+        Function<String, ItemDto> parser;
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            String header = lines.readLine();
+            lineNumber++;
+            if (header == null) {
+                return result;
+            }
+            parser = csvParser(splitCsv(header));
+        } else {
+            parser = this::parseJson;
+        }
+        List<Row> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setProcessed(result.getProcessed() + 1);
+            try {
+                ItemDto itemDto = parser.apply(line);
+                validate(itemDto);
+                batch.add(new Row(lineNumber, itemDto));
+            } catch (ValidationException e) {
+                fail(result, lineNumber, e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                save(userId, batch, result);
+                batch.clear();
+            }
+        }
+        save(userId, batch, result);
+        log.info("finished import for user {}: {} imported, {} failed", userId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void save(long userId, List<Row> batch, ItemImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Row> saved = new ArrayList<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, userId);
+                Set<Long> requestIds = batch.stream()
+                        .map(row -> row.itemDto.getRequestId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of() : itemRequestRepository.findAllById(requestIds)
+                        .stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                List<Item> items = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    Long requestId = row.itemDto.getRequestId();
+                    if (requestId != null && !requests.containsKey(requestId)) {
+                        fail(result, row.line, "Запрос с id = " + requestId + " не найден.");
+                        continue;
+                    }
+                    Item item = ItemMapper.returnItem(row.itemDto, owner);
+                    item.setRequest(requestId == null ? null : requests.get(requestId));
+                    items.add(item);
+                    saved.add(row);
+                }
+                itemRepository.saveAll(items);
+                itemRepository.flush();
+                items.forEach(item -> eventPublisher.publishEvent(ItemEvent.of(item)));
+                items.stream()
+                        .filter(item -> item.getRequest() != null)
+                        .forEach(item -> eventPublisher.publishEvent(ItemRequestAnswerEvent.of(item)));
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            saved.forEach(row -> fail(result, row.line, "Не удалось сохранить позицию"));
+            return;
+        }
+        result.setImported(result.getImported() + saved.size());
+        imported.increment(saved.size());
+        log.info("imported {} of {} items for user {}", result.getImported(), result.getProcessed(), userId);
+    }
+
+    private ItemDto parseJson(String line) {
+        try {
+            JsonNode node = reader.readTree(line);
+            if (!node.isObject()) {
+                throw new ValidationException("Строка должна быть JSON-объектом");
+            }
+            ItemDto itemDto = reader.treeToValue(node, ItemDto.class);
+            itemDto.setId(null);
+            return itemDto;
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Function<String, ItemDto> csvParser(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : List.of("name", "description", "available")) {
+            if (!columns.containsKey(column)) {
+                throw new ValidationException("В заголовке CSV нет колонки " + column);
+            }
+        }
+        return line -> {
+            List<String> values = splitCsv(line);
+            String available = value(values, columns.get("available"));
+            String requestId = value(values, columns.get("requestid"));
+            if (available != null && !available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                throw new ValidationException("Некорректное значение available: " + available);
+            }
+            try {
+                return ItemDto.builder()
+                        .name(value(values, columns.get("name")))
+                        .description(value(values, columns.get("description")))
+                        .available(available == null ? null : Boolean.valueOf(available))
+                        .requestId(requestId == null ? null : Long.valueOf(requestId))
+                        .build();
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Некорректное значение requestId: " + requestId);
+            }
+        };
+    }
+
+    private static String value(List<String> values, Integer column) {
+        if (column == null || column >= values.size() || values.get(column).isEmpty()) {
+            return null;
+        }
+        return values.get(column);
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static void validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ValidationException("Название не должно быть пустым");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ValidationException("Описание не должно быть пустым");
+        }
+        if (itemDto.getAvailable() == null) {
+            throw new ValidationException("Доступность должна быть указана");
+        }
+        if (itemDto.getRequestId() != null && itemDto.getRequestId() <= 0) {
+            throw new ValidationException("requestId должен быть положительным");
+        }
+    }
+
+    private static void fail(ItemImportResultDto result, long line, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(line, error));
+        }
+    }
+
+    private static class Row {
+
+        private final long line;
+        private final ItemDto itemDto;
+
+        private Row(long line, ItemDto itemDto) {
+            this.line = line;
+            this.itemDto = itemDto;
+        }
+    }
+}
\ No newline at end of file
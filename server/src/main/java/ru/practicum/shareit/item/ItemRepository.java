@@ -2,22 +2,64 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.BookingPointer;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("select i from Item i where upper(i.name) like upper(concat('%', ?1, '%')) or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true ")
-    List<Item> search(String text, PageRequest pageRequest);
+    @Query(value = "select i.* from items i where i.is_available = true and i.search_vector @@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.id limit ?2 offset ?3", nativeQuery = true)
+    List<Item> searchFullText(String tsQuery, int limit, long offset);
 
-    List<Item> findByOwnerIdOrderById(long userId);
+    List<Item> findByIdGreaterThanOrderById(long itemId, Pageable pageable);
+
+    @Query("select i.owner.id from Item i where i.id = ?1")
+    Optional<Long> findOwnerIdById(long itemId);
+
+    boolean existsByOwnerId(long userId);
 
     Page<Item> findByOwnerIdOrderById(long userId, PageRequest pageRequest);
 
     List<Item> findByRequestId(long requestId);
+
+    List<Item> findByRequestIdInOrderById(Collection<Long> requestIds);
+
+    @Query("select i.id from Item i where i.nextBooking.start <= ?1 order by i.nextBooking.start")
+    List<Long> findIdsByNextBookingStartBefore(LocalDateTime dateTime, Pageable pageable);
+
+    @Query(value = "select i.id from items i where i.id = ?1 for update", nativeQuery = true)
+    Optional<Long> lockById(long itemId);
+
+    @Query(value = "select i.id from items i where i.id in (?1) order by i.id for update", nativeQuery = true)
+    List<Long> lockAllById(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("update Item i set " +
+            "i.lastBooking.bookingId = :#{#last?.bookingId}, i.lastBooking.bookerId = :#{#last?.bookerId}, " +
+            "i.lastBooking.start = :#{#last?.start}, i.lastBooking.end = :#{#last?.end}, " +
+            "i.nextBooking.bookingId = :#{#next?.bookingId}, i.nextBooking.bookerId = :#{#next?.bookerId}, " +
+            "i.nextBooking.start = :#{#next?.start}, i.nextBooking.end = :#{#next?.end} " +
+            "where i.id = :itemId")
+    int updateBookingPointers(@Param("itemId") long itemId, @Param("last") BookingPointer last,
+                              @Param("next") BookingPointer next);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findLockedByIdInOrderById(Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityDto {
+
+    Long itemId;
+    LocalDateTime from;
+    LocalDateTime to;
+    List<IntervalDto> busy;
+    List<IntervalDto> free;
+}
\ No newline at end of file
@@ -11,7 +11,7 @@ import java.util.List;
 
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemDto {
 
@@ -22,5 +22,6 @@ public class ItemDto {
     ShortItemBookingDto lastBooking;
     ShortItemBookingDto nextBooking;
     List<CommentDto> comments;
+    Long commentCount;
     Long requestId;
 }
\ No newline at end of file
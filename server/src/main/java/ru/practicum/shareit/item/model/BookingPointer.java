@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingPointer {
+
+    Long bookingId;
+
+    Long bookerId;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collections;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        List<String> tokens = ItemSearchQuery.tokens(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemRepository.searchFullText(ItemSearchQuery.toTsQuery(tokens), pageRequest.getPageSize(),
+                pageRequest.getOffset());
+    }
+}
\ No newline at end of file
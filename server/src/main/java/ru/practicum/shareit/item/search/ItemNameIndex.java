@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public class ItemNameIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final long NAME_OVERHEAD = 120;
+    private static final long ITEM_OVERHEAD = 64;
+
+    private final long maxBytes;
+    private final NavigableMap<String, Name> names = new TreeMap<>();
+    private final Map<Long, Name> items = new HashMap<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long bytes;
+
+    public ItemNameIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Applies the state of an item at the given version. AFTER_COMMIT listeners of concurrent updates may run in any
+     * order, so a version not newer than the last one applied is ignored instead of overwriting a newer name.
+     */
+    public boolean put(long itemId, long version, String name, boolean available) {
+        String folded = name == null ? "" : fold(name);
+        lock.writeLock().lock();
+        try {
+            Long applied = versions.get(itemId);
+            if (applied != null && applied >= version) {
+                return true;
+            }
+            versions.put(itemId, version);
+            Name previous = items.get(itemId);
+            if (previous != null && available && previous.folded.equals(folded)) {
+                return true;
+            }
+            remove(itemId);
+            if (!available || folded.isEmpty()) {
+                return true;
+            }
+            Name entry = names.get(folded);
+            long required = ITEM_OVERHEAD + (entry == null ? NAME_OVERHEAD + 4L * folded.length() : 0);
+            if (bytes + required > maxBytes) {
+                return false;
+            }
+            if (entry == null) {
+                entry = new Name(folded, WHITESPACE.matcher(name.trim()).replaceAll(" "));
+                names.put(folded, entry);
+            }
+            entry.items++;
+            items.put(itemId, entry);
+            bytes += required;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String folded = fold(prefix);
+        List<String> result = new ArrayList<>(limit);
+        if (folded.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            for (Name name : names.tailMap(folded, true).values()) {
+                if (result.size() == limit || !name.folded.startsWith(folded)) {
+                    break;
+                }
+                result.add(name.display);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public long bytes() {
+        lock.readLock().lock();
+        try {
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(long itemId) {
+        Name entry = items.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        bytes -= ITEM_OVERHEAD;
+        if (--entry.items == 0) {
+            names.remove(entry.folded);
+            bytes -= NAME_OVERHEAD + 4L * entry.folded.length();
+        }
+    }
+
+    private static String fold(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Name {
+
+        private final String folded;
+        private final String display;
+        private int items;
+
+        private Name(String folded, String display) {
+            this.folded = folded;
+            this.display = display;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@Slf4j
+@Component
+public class ItemNameSuggester {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_SIZE = 50;
+
+    private final ItemRepository itemRepository;
+    private final ItemNameIndex index;
+    private final Counter rejected;
+
+    public ItemNameSuggester(ItemRepository itemRepository, MeterRegistry registry,
+                             @Value("${shareit.item.suggest.max-bytes}") long maxBytes) {
+        this.itemRepository = itemRepository;
+        this.index = new ItemNameIndex(maxBytes);
+        this.rejected = Counter.builder("shareit.items.suggest.rejected")
+                .description("Item names not indexed because the suggest index is full")
+                .register(registry);
+        Gauge.builder("shareit.items.suggest.size", index, ItemNameIndex::bytes)
+                .description("Estimated memory held by the suggest index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void build() {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, BATCH_SIZE));
+        while (!items.isEmpty()) {
+            items.forEach(item -> put(item.getId(), item.getVersion(), item.getName(), Boolean.TRUE.equals(item.getAvailable())));
+            items = itemRepository.findByIdGreaterThanOrderById(items.get(items.size() - 1).getId(), PageRequest.of(0, BATCH_SIZE));
+        }
+        log.info("built item suggest index of {} bytes", index.bytes());
+    }
+
+    public List<String> suggest(String prefix, Integer size) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new ValidationException("size должен быть от 1 до " + MAX_SIZE);
+        }
+        return index.suggest(prefix, size);
+    }
+
+    @TransactionalEventListener
+    public void onItemEvent(ItemEvent event) {
+        put(event.getItemId(), event.getVersion(), event.getName(), Boolean.TRUE.equals(event.getAvailable()));
+    }
+
+    private void put(long itemId, long version, String name, boolean available) {
+        if (!index.put(itemId, version, name, available)) {
+            rejected.increment();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ItemNgramIndex {
+
+    private static final int N = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long itemId, String name, String description, boolean available) {
+        Document document = new Document(fold(name), fold(description), available);
+        Set<Long> grams = grams(document);
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.put(itemId, document);
+            Set<Long> previousGrams = previous == null ? Set.of() : grams(previous);
+            for (long gram : previousGrams) {
+                if (!grams.contains(gram)) {
+                    Postings list = postings.get(gram);
+                    list.remove(itemId);
+                    if (list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (long gram : grams) {
+                if (!previousGrams.contains(gram)) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(itemId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        Matches matches = new Matches(fold(text), offset, limit);
+        String query = matches.query;
+        lock.readLock().lock();
+        try {
+            if (query.length() < N) {
+                for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                    if (matches.accept(entry.getKey(), entry.getValue())) {
+                        break;
+                    }
+                }
+                return matches.result;
+            }
+            List<Postings> lists = new ArrayList<>();
+            for (long gram : grams(query)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return matches.result;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings smallest = lists.get(0);
+            for (int i = 0; i < smallest.size; i++) {
+                long itemId = smallest.ids[i];
+                if (containsAll(lists, itemId) && matches.accept(itemId, documents.get(itemId))) {
+                    break;
+                }
+            }
+            return matches.result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, long itemId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<Long> grams(Document document) {
+        Set<Long> grams = grams(document.name);
+        grams.addAll(grams(document.description));
+        return grams;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Document {
+
+        String name;
+        String description;
+        boolean available;
+    }
+
+    private static class Matches {
+
+        final String query;
+        final int limit;
+        final List<Long> result = new ArrayList<>();
+        long skip;
+
+        Matches(String query, long skip, int limit) {
+            this.query = query;
+            this.skip = skip;
+            this.limit = limit;
+        }
+
+        boolean accept(long itemId, Document document) {
+            if (!document.available || !(document.name.contains(query) || document.description.contains(query))) {
+                return false;
+            }
+            if (skip > 0) {
+                skip--;
+                return false;
+            }
+            result.add(itemId);
+            return result.size() >= limit;
+        }
+    }
+
+    private static class Postings {
+
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemCacheConfig;
+import ru.practicum.shareit.item.ItemEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class ItemSearchCache {
+
+    private final Cache<Object, Object> cache;
+    private final Set<Key> loading = ConcurrentHashMap.newKeySet();
+    private final Counter coalesced;
+
+    public ItemSearchCache(CacheManager cacheManager, MeterRegistry registry) {
+        this.cache = ((CaffeineCache) cacheManager.getCache(ItemCacheConfig.ITEM_SEARCH)).getNativeCache();
+        this.coalesced = Counter.builder("shareit.items.search.coalesced")
+                .description("Search requests that waited for a concurrent load of the same key")
+                .register(registry);
+        Gauge.builder("shareit.items.search.hit-ratio", cache, c -> c.stats().hitRate())
+                .description("Share of search requests served from the result cache")
+                .register(registry);
+    }
+
+    public static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ItemDto> get(String text, PageRequest pageRequest, Function<String, List<ItemDto>> loader) {
+        Key key = new Key(normalize(text), pageRequest.getPageNumber(), pageRequest.getPageSize());
+        boolean inFlight = loading.contains(key);
+        boolean[] loaded = {false};
+        Object result = cache.get(key, k -> {
+            loaded[0] = true;
+            loading.add(key);
+            try {
+                return List.copyOf(loader.apply(key.getText()));
+            } finally {
+                loading.remove(key);
+            }
+        });
+        if (inFlight && !loaded[0]) {
+            coalesced.increment();
+        }
+        return (List<ItemDto>) result;
+    }
+
+    @TransactionalEventListener
+    @SuppressWarnings("unchecked")
+    public void onItemEvent(ItemEvent event) {
+        String text = (event.getName() + " " + event.getDescription()).toLowerCase(Locale.ROOT);
+        // Pages of one query are offsets into the same ranking, so they are dropped together: evicting only the
+        // page that held the item would leave later pages shifted against a fresh first page.
+        Set<String> stale = new HashSet<>();
+        cache.asMap().forEach((key, items) -> {
+            String query = ((Key) key).getText();
+            if (contains((List<ItemDto>) items, event.getItemId())
+                    || ItemSearchQuery.tokens(query).stream().anyMatch(text::contains)) {
+                stale.add(query);
+            }
+        });
+        cache.asMap().keySet().removeIf(key -> stale.contains(((Key) key).getText()));
+    }
+
+    private static boolean contains(List<ItemDto> items, Long itemId) {
+        return items.stream().anyMatch(itemDto -> itemId.equals(itemDto.getId()));
+    }
+
+    @Value
+    private static class Key {
+        String text;
+        int page;
+        int size;
+    }
+}
\ No newline at end of file
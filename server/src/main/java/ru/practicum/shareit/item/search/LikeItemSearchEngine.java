@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "like")
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        List<String> tokens = ItemSearchQuery.tokens(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Item> query = cb.createQuery(Item.class);
+        Root<Item> item = query.from(Item.class);
+        Expression<String> name = cb.lower(item.get("name"));
+        Expression<String> description = cb.lower(item.get("description"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        List<Predicate> inName = new ArrayList<>();
+        predicates.add(cb.isTrue(item.get("available")));
+        for (String token : tokens) {
+            Predicate nameMatch = wordPrefix(cb, name, token);
+            predicates.add(cb.or(nameMatch, wordPrefix(cb, description, token)));
+            inName.add(nameMatch);
+        }
+        query.select(item)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(cb.selectCase().when(cb.and(inName.toArray(new Predicate[0])), 1).otherwise(0)),
+                        cb.asc(item.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize())
+                .getResultList();
+    }
+
+    private static Predicate wordPrefix(CriteriaBuilder cb, Expression<String> column, String token) {
+        return cb.or(cb.like(column, token + "%"), cb.like(column, "% " + token + "%"));
+    }
+}
\ No newline at end of file
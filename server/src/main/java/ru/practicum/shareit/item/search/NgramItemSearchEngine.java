@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "ngram")
+public class NgramItemSearchEngine implements ItemSearchEngine {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemNgramIndex index = new ItemNgramIndex();
+
+    @PostConstruct
+    public void build() {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, BATCH_SIZE));
+        while (!items.isEmpty()) {
+            items.forEach(item -> index.put(item.getId(), item.getName(), item.getDescription(), item.getAvailable()));
+            items = itemRepository.findByIdGreaterThanOrderById(items.get(items.size() - 1).getId(), PageRequest.of(0, BATCH_SIZE));
+        }
+        log.info("built item n-gram index over {} items", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        List<Long> itemIds = index.search(text, pageRequest.getOffset(), pageRequest.getPageSize());
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener
+    public void onItemEvent(ItemEvent event) {
+        index.put(event.getItemId(), event.getName(), event.getDescription(), Boolean.TRUE.equals(event.getAvailable()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+
+import java.time.LocalDateTime;
+
+public interface ItemAvailabilityService {
+
+    AvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
+    void onBookingEvent(BookingEvent event);
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemCalendar;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+
+    private static final Duration DEFAULT_PERIOD = Duration.ofDays(30);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final AsyncCache<Long, ItemCalendar> calendars;
+
+    public ItemAvailabilityServiceImpl(ItemRepository itemRepository, BookingRepository bookingRepository,
+                                       @Value("${shareit.availability.max-intervals}") long maxIntervals) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumWeight(maxIntervals)
+                .<Long, ItemCalendar>weigher((itemId, calendar) -> 1 + calendar.size())
+                .executor(Runnable::run)
+                .buildAsync();
+    }
+
+    @Override
+    public AvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_PERIOD) : to;
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+        CompletableFuture<ItemCalendar> loaded = calendar(itemId);
+        ItemCalendar calendar = loaded.join();
+        if (calendar.trim(now) != 0) {
+            calendars.asMap().replace(itemId, loaded, loaded);
+        }
+
+        List<IntervalDto> busy = new ArrayList<>();
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (ItemCalendar.Interval interval : calendar.busy(start, end)) {
+            LocalDateTime busyStart = interval.getStart().isBefore(start) ? start : interval.getStart();
+            LocalDateTime busyEnd = interval.getEnd().isAfter(end) ? end : interval.getEnd();
+            if (cursor.isBefore(busyStart)) {
+                free.add(new IntervalDto(cursor, busyStart));
+            }
+            busy.add(new IntervalDto(busyStart, busyEnd));
+            cursor = busyEnd;
+        }
+        if (cursor.isBefore(end)) {
+            free.add(new IntervalDto(cursor, end));
+        }
+        return AvailabilityDto.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(end)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        CompletableFuture<ItemCalendar> loaded = calendars.getIfPresent(event.getItemId());
+        if (loaded != null) {
+            loaded.thenAccept(calendar -> {
+                if (calendar != null && calendar.apply(event) != 0) {
+                    calendars.asMap().replace(event.getItemId(), loaded, loaded);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<ItemCalendar> calendar(long itemId) {
+        CompletableFuture<ItemCalendar> created = new CompletableFuture<>();
+        CompletableFuture<ItemCalendar> loaded = calendars.asMap().putIfAbsent(itemId, created);
+        if (loaded == null) {
+            loaded = created;
+            try {
+                created.complete(load(itemId));
+            } catch (RuntimeException e) {
+                created.complete(null);
+                throw e;
+            }
+        }
+        if (loaded.join() == null) {
+            throw new NotFoundException("Позиция с id = " + itemId + " не найдена");
+        }
+        return loaded;
+    }
+
+    private ItemCalendar load(long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            return null;
+        }
+        ItemCalendar calendar = new ItemCalendar();
+        for (Booking booking : bookingRepository.findByItemIdAndStatusInAndEndAfter(itemId, Status.BLOCKING, LocalDateTime.now())) {
+            calendar.apply(BookingEvent.of(booking));
+        }
+        return calendar;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingPointerService {
+
+    void refresh(Collection<Long> itemIds, LocalDateTime now);
+
+    List<Long> rollForward(LocalDateTime now, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.BookingPointer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ItemBookingPointerServiceImpl implements ItemBookingPointerService {
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        // Only the pointer columns are written, so a concurrent rename or availability change is never overwritten.
+        List<Long> lockedIds = itemRepository.lockAllById(itemIds);
+        Map<Long, BookingPointer> lastBookings = new HashMap<>();
+        Map<Long, BookingPointer> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(lockedIds, Status.APPROVED.name(), now)) {
+            (booking.getStart().isBefore(now) ? lastBookings : nextBookings)
+                    .put(booking.getItem().getId(), BookingMapper.toBookingPointer(booking));
+        }
+        for (Long itemId : lockedIds) {
+            itemRepository.updateBookingPointers(itemId, lastBookings.get(itemId), nextBookings.get(itemId));
+        }
+    }
+
+    @Override
+    public List<Long> rollForward(LocalDateTime now, int limit) {
+        List<Long> itemIds = itemRepository.findIdsByNextBookingStartBefore(now, PageRequest.of(0, limit));
+        refresh(itemIds, now);
+        return itemIds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.service;
+
+public interface ItemOwnershipService {
+
+    void checkOwner(long userId, long itemId);
+
+    boolean ownsAnyItems(long userId);
+}
\ No newline at end of file
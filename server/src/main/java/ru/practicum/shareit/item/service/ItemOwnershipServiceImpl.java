@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemCacheConfig;
+import ru.practicum.shareit.item.ItemRepository;
+
+@Service
+public class ItemOwnershipServiceImpl implements ItemOwnershipService {
+
+    private final ItemRepository itemRepository;
+    private final Cache itemOwners;
+    private final Cache itemOwnerUsers;
+
+    public ItemOwnershipServiceImpl(ItemRepository itemRepository, CacheManager cacheManager) {
+        this.itemRepository = itemRepository;
+        this.itemOwners = cacheManager.getCache(ItemCacheConfig.ITEM_OWNERS);
+        this.itemOwnerUsers = cacheManager.getCache(ItemCacheConfig.ITEM_OWNER_USERS);
+    }
+
+    @Override
+    public void checkOwner(long userId, long itemId) {
+        Long ownerId = itemOwners.get(itemId, Long.class);
+        if (ownerId == null) {
+            ownerId = itemRepository.findOwnerIdById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Позиция с id = " + itemId + " не найдена"));
+            itemOwners.put(itemId, ownerId);
+        }
+        if (ownerId != userId) {
+            throw new NotFoundException("Объект не был найден у пользователя с id =  " + userId);
+        }
+    }
+
+    @Override
+    public boolean ownsAnyItems(long userId) {
+        if (itemOwnerUsers.get(userId) != null) {
+            return true;
+        }
+        if (itemRepository.existsByOwnerId(userId)) {
+            itemOwnerUsers.put(userId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -19,4 +19,6 @@ public interface ItemService {
 
     CommentDto postComment(long userId, long itemId, CommentDto commentDto);
 
+    List<CommentDto> getComments(long itemId, Long after, Integer size);
+
 }
\ No newline at end of file
@@ -1,32 +1,52 @@
 package ru.practicum.shareit.item.service;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentCount;
+import ru.practicum.shareit.comment.CommentEligibility;
+import ru.practicum.shareit.comment.CommentEvent;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.ItemComment;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemCacheConfig;
+import ru.practicum.shareit.item.ItemCacheEvictor;
+import ru.practicum.shareit.item.ItemEvent;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.BookingPointer;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequestAnswerEvent;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -37,7 +57,17 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final CommentEligibility commentEligibility;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemOwnershipService itemOwnershipService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ItemCacheEvictor itemCacheEvictor;
+
+    @Value("${shareit.item.comments.embedded}")
+    private int embeddedComments;
 
     @Override
     @Transactional
@@ -50,6 +80,10 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequestRepository.findById(itemDto.getRequestId()).get());
         }
         itemRepository.save(item);
+        eventPublisher.publishEvent(ItemEvent.of(item));
+        if (item.getRequest() != null) {
+            eventPublisher.publishEvent(ItemRequestAnswerEvent.of(item));
+        }
         return ItemMapper.returnItemDto(item);
     }
 
@@ -58,55 +92,46 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto update(ItemDto itemDto, long itemId, long userId) {
 
         checkUser(userId);
-        User user = userRepository.findById(userId).get();
-        checkItem(itemId);
-        Item item = ItemMapper.returnItem(itemDto, user);
-        item.setId(itemId);
-        if (!itemRepository.findByOwnerIdOrderById(userId).contains(item)) {
-            throw new NotFoundException("Объект не был найден у пользователя с id =  " + userId);
-        }
-        Item newItem = itemRepository.findById(item.getId()).get();
-        if (item.getName() != null) {
-            newItem.setName(item.getName());
+        itemOwnershipService.checkOwner(userId, itemId);
+        Item newItem = itemRepository.findLockedById(itemId).get();
+        if (itemDto.getName() != null) {
+            newItem.setName(itemDto.getName());
         }
-        if (item.getDescription() != null) {
-            newItem.setDescription(item.getDescription());
+        if (itemDto.getDescription() != null) {
+            newItem.setDescription(itemDto.getDescription());
         }
-        if (item.getAvailable() != null) {
-            newItem.setAvailable(item.getAvailable());
+        if (itemDto.getAvailable() != null) {
+            newItem.setAvailable(itemDto.getAvailable());
         }
-        itemRepository.save(newItem);
+        itemRepository.saveAndFlush(newItem);
+        eventPublisher.publishEvent(ItemEvent.of(newItem));
         return ItemMapper.returnItemDto(newItem);
     }
 
     @Override
-    @Transactional
     public ItemDto getItemById(long itemId, long userId) {
 
-        checkItem(itemId);
-        Item item = itemRepository.findById(itemId).get();
-        ItemDto itemDto = ItemMapper.returnItemDto(item);
+        Cache details = cacheManager.getCache(ItemCacheConfig.ITEM_DETAILS);
+        CachedItem cachedItem = details.get(itemId, CachedItem.class);
+        if (cachedItem == null) {
+            long generation = itemCacheEvictor.detailsGeneration(itemId);
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Позиция с id = " + itemId + " не найдена"));
+            ItemDto itemDto = ItemMapper.returnItemDto(item);
+            List<Comment> comments = commentRepository.findNewestByItemId(itemId, PageRequest.of(0, embeddedComments));
+            itemDto.setComments(List.copyOf(CommentMapper.returnCommentDtoList(comments)));
+            itemDto.setCommentCount(comments.size() < embeddedComments ? comments.size() : commentRepository.countByItemId(itemId));
+            cachedItem = new CachedItem(item.getOwner().getId(), itemDto, item.getLastBooking(), item.getNextBooking());
+            itemCacheEvictor.putDetails(itemId, cachedItem, generation);
+        }
         checkUser(userId);
-        if (item.getOwner().getId() == userId) {
-            Optional<Booking> lastBooking = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId, Status.APPROVED, LocalDateTime.now());
-            Optional<Booking> nextBooking = bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId, Status.APPROVED, LocalDateTime.now());
-            if (lastBooking.isPresent()) {
-                itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking.get()));
-            } else {
-                itemDto.setLastBooking(null);
-            }
-            if (nextBooking.isPresent()) {
-                itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking.get()));
-            } else {
-                itemDto.setNextBooking(null);
+        ItemDto itemDto = cachedItem.getItem().toBuilder().build();
+        if (cachedItem.getOwnerId() == userId) {
+            LocalDateTime now = LocalDateTime.now();
+            if (!setBookings(itemDto, cachedItem.getLastBooking(), cachedItem.getNextBooking(), now)) {
+                setBookings(new long[]{itemId}, List.of(itemDto), List.of(itemId), now);
             }
         }
-        List<Comment> commentList = commentRepository.findByItemId(itemId);
-        if (!commentList.isEmpty()) {
-            itemDto.setComments(CommentMapper.returnCommentDtoList(commentList));
-        } else {
-            itemDto.setComments(Collections.emptyList());
-        }
         return itemDto;
     }
 
@@ -115,61 +140,110 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getItemsByUserId(long userId, Integer from, Integer size) {
         checkUser(userId);
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<ItemDto> resultList = new ArrayList<>();
-        for (ItemDto itemDto : ItemMapper.returnItemDtoList(itemRepository.findByOwnerIdOrderById(userId, pageRequest))) {
-            Optional<Booking> lastBooking = bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemDto.getId(), Status.APPROVED, LocalDateTime.now());
-            Optional<Booking> nextBooking = bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemDto.getId(), Status.APPROVED, LocalDateTime.now());
-            if (lastBooking.isPresent()) {
-                itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking.get()));
-            } else {
-                itemDto.setLastBooking(null);
-            }
-            if (nextBooking.isPresent()) {
-                itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking.get()));
-            } else {
-                itemDto.setNextBooking(null);
+        List<Item> items = itemRepository.findByOwnerIdOrderById(userId, pageRequest).getContent();
+        List<ItemDto> resultList = ItemMapper.returnItemDtoList(items);
+        if (items.isEmpty()) {
+            return resultList;
+        }
+        long[] itemIds = items.stream().mapToLong(Item::getId).toArray();
+        List<Long> ids = Arrays.stream(itemIds).boxed().collect(Collectors.toList());
+        resultList.forEach(itemDto -> itemDto.setComments(new ArrayList<>()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleIds = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (!setBookings(resultList.get(i), item.getLastBooking(), item.getNextBooking(), now)) {
+                staleIds.add(item.getId());
             }
-            resultList.add(itemDto);
         }
+        setBookings(itemIds, resultList, staleIds, now);
+        for (ItemComment comment : commentRepository.findNewestByItemIdIn(ids, embeddedComments)) {
+            resultList.get(Arrays.binarySearch(itemIds, comment.getItemId())).getComments()
+                    .add(CommentMapper.returnCommentDto(comment));
+        }
+        List<Long> fullIds = new ArrayList<>();
         for (ItemDto itemDto : resultList) {
-            List<Comment> commentList = commentRepository.findByItemId(itemDto.getId());
-            if (!commentList.isEmpty()) {
-                itemDto.setComments(CommentMapper.returnCommentDtoList(commentList));
-            } else {
-                itemDto.setComments(Collections.emptyList());
+            itemDto.setCommentCount((long) itemDto.getComments().size());
+            if (itemDto.getComments().size() >= embeddedComments) {
+                fullIds.add(itemDto.getId());
+            }
+        }
+        if (!fullIds.isEmpty()) {
+            for (CommentCount count : commentRepository.countByItemIdIn(fullIds)) {
+                resultList.get(Arrays.binarySearch(itemIds, count.getItemId())).setCommentCount(count.getCount());
             }
         }
         return resultList;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ItemDto> getItemsByKeyword(String text, Integer from, Integer size) {
         PageRequest pageRequest = checkPageSize(from, size);
-        if (text.equals("")) {
+        if (text.isBlank()) {
             return Collections.emptyList();
         } else {
-            return ItemMapper.returnItemDtoList(itemRepository.search(text, pageRequest));
+            return itemSearchCache.get(text, pageRequest,
+                    query -> ItemMapper.returnItemDtoList(itemSearchEngine.search(query, pageRequest)));
         }
     }
 
     @Override
     @Transactional
     public CommentDto postComment(long userId, long itemId, CommentDto commentDto) {
-        checkUser(userId);
-        User user = userRepository.findById(userId).get();
-        checkItem(itemId);
-        Item item = itemRepository.findById(itemId).get();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
         LocalDateTime dateTime = LocalDateTime.now();
-        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, Status.APPROVED, dateTime);
-        if (booking.isEmpty()) {
+        if (!commentEligibility.isEligible(userId, itemId, dateTime)) {
+            checkItem(itemId);
             throw new ValidationException(String.format("Пользователь с id = %d не бронировал позицию с id = %d.", userId, itemId));
         }
+        Item item = itemRepository.getReferenceById(itemId);
         Comment comment = CommentMapper.returnComment(commentDto, item, user, dateTime);
         commentRepository.save(comment);
+        eventPublisher.publishEvent(CommentEvent.of(comment));
         return CommentMapper.returnCommentDto(comment);
     }
 
+    @Override
+    public List<CommentDto> getComments(long itemId, Long after, Integer size) {
+        if (size <= 0) {
+            throw new ValidationException("size должен быть больше нуля");
+        }
+        PageRequest pageRequest = PageRequest.of(0, size);
+        if (after == null) {
+            checkItem(itemId);
+            return CommentMapper.returnCommentDtoList(commentRepository.findNewestByItemId(itemId, pageRequest));
+        }
+        Comment cursor = commentRepository.findByIdAndItemId(after, itemId)
+                .orElseThrow(() -> new NotFoundException("Комментарий с id = " + after + " не найден у позиции с id = " + itemId));
+        return CommentMapper.returnCommentDtoList(commentRepository.findByItemIdBefore(itemId, cursor.getCreated(),
+                cursor.getId(), pageRequest));
+    }
+
+    private boolean setBookings(ItemDto itemDto, BookingPointer lastBooking, BookingPointer nextBooking, LocalDateTime now) {
+        if (nextBooking != null && !nextBooking.getStart().isAfter(now)) {
+            return false;
+        }
+        itemDto.setLastBooking(lastBooking == null ? null : BookingMapper.toBookingShortDto(lastBooking));
+        itemDto.setNextBooking(nextBooking == null ? null : BookingMapper.toBookingShortDto(nextBooking));
+        return true;
+    }
+
+    private void setBookings(long[] itemIds, List<ItemDto> itemDtos, List<Long> staleIds, LocalDateTime now) {
+        if (staleIds.isEmpty()) {
+            return;
+        }
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(staleIds, Status.APPROVED.name(), now)) {
+            ItemDto itemDto = itemDtos.get(Arrays.binarySearch(itemIds, booking.getItem().getId()));
+            if (booking.getStart().isBefore(now)) {
+                itemDto.setLastBooking(BookingMapper.toBookingShortDto(booking));
+            } else {
+                itemDto.setNextBooking(BookingMapper.toBookingShortDto(booking));
+            }
+        }
+    }
+
     private void checkUser(long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id = " + userId + " не найден");
@@ -201,4 +275,14 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Запрос с id = " + requestId + " не найден.");
         }
     }
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class CachedItem {
+        long ownerId;
+        ItemDto item;
+        BookingPointer lastBooking;
+        BookingPointer nextBooking;
+    }
 }
\ No newline at end of file
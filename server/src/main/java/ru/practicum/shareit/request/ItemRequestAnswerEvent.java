@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemRequestAnswerEvent {
+
+    Long requesterId;
+    ItemDto item;
+
+    public static ItemRequestAnswerEvent of(Item item) {
+        return new ItemRequestAnswerEvent(item.getRequest().getRequester().getId(), ItemMapper.returnItemDto(item));
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -20,6 +21,7 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final ItemRequestEventBus itemRequestEventBus;
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
@@ -30,17 +32,26 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemRequestDto>> getAllRequestsByUserId(@RequestHeader(HEADER_USER_ID) Long userId) {
+    public ResponseEntity<List<ItemRequestDto>> getAllRequestsByUserId(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                                       @RequestParam(defaultValue = "0", required = false) Integer from,
+                                                                       @RequestParam(defaultValue = "10", required = false) Integer size) {
         log.info("Get user Id {}", userId);
-        return ResponseEntity.ok(itemRequestService.getAllRequestsByUserId(userId));
+        return ResponseEntity.ok(itemRequestService.getAllRequestsByUserId(userId, from, size));
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                               @RequestParam(required = false) Long after,
                                                                @RequestParam(defaultValue = "0", required = false) Integer from,
                                                                @RequestParam(defaultValue = "10", required = false) Integer size) {
         log.info("Get all requests by All users ");
-        return ResponseEntity.ok(itemRequestService.getAllRequests(userId, from, size));
+        return ResponseEntity.ok(itemRequestService.getAllRequests(userId, after, from, size));
+    }
+
+    @GetMapping("/subscribe")
+    public SseEmitter subscribe(@RequestHeader(HEADER_USER_ID) Long userId) {
+        log.info("User {}, subscribe to request answers", userId);
+        return itemRequestEventBus.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,298 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class ItemRequestEventBus {
+
+    private final UserRepository userRepository;
+    private final Executor delivery;
+    private final int bufferSize;
+    private final long timeout;
+    private final long sendTimeoutNanos;
+    private final int maxExtraThreads;
+    private int extraThreads;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter stalled;
+
+    @Autowired
+    public ItemRequestEventBus(UserRepository userRepository, MeterRegistry registry,
+                               @Value("${shareit.request.events.buffer-size}") int bufferSize,
+                               @Value("${shareit.request.events.timeout}") long timeout,
+                               @Value("${shareit.request.events.send-timeout}") long sendTimeout,
+                               @Value("${shareit.request.events.delivery-threads}") int deliveryThreads) {
+        this(userRepository, registry, bufferSize, timeout, sendTimeout, new ThreadPoolExecutor(deliveryThreads,
+                deliveryThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "request-events-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }));
+    }
+
+    ItemRequestEventBus(UserRepository userRepository, MeterRegistry registry, int bufferSize, long timeout,
+                        long sendTimeout, Executor delivery) {
+        this.userRepository = userRepository;
+        this.delivery = delivery;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        this.maxExtraThreads = delivery instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) delivery).getCorePoolSize() * 2 : 0;
+        this.dropped = Counter.builder("shareit.requests.events.dropped")
+                .description("Request answers dropped because a subscriber buffer was full")
+                .register(registry);
+        this.stalled = Counter.builder("shareit.requests.events.stalled")
+                .description("Subscribers dropped because a send blocked longer than the send timeout")
+                .register(registry);
+        Gauge.builder("shareit.requests.subscribers", size, AtomicInteger::get)
+                .description("Open request answer subscriptions")
+                .register(registry);
+        Gauge.builder("shareit.requests.events.buffered", buffered, AtomicInteger::get)
+                .description("Request answers waiting to be sent to subscribers")
+                .register(registry);
+        if (delivery instanceof ThreadPoolExecutor) {
+            Gauge.builder("shareit.requests.events.delivery-threads", (ThreadPoolExecutor) delivery,
+                            ThreadPoolExecutor::getCorePoolSize)
+                    .description("Delivery threads, including those added for stalled sends")
+                    .register(registry);
+        }
+    }
+
+    public SseEmitter subscribe(long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с ID %d не найден", userId));
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(subscriber);
+            return result;
+        });
+        size.incrementAndGet();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        try {
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            subscriber.close();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onAnswer(ItemRequestAnswerEvent event) {
+        subscribers.getOrDefault(event.getRequesterId(), Set.of()).forEach(subscriber -> subscriber.offer(event.getItem()));
+    }
+
+    /**
+     * Drops subscribers whose client stopped reading. The blocked write holds the emitter's lock, so it can neither
+     * be completed nor interrupted from here; it fails once the container's write timeout
+     * ({@code server.tomcat.connection-timeout}) fires and the delivery thread then completes the stream with an
+     * error. Until then the pool lends one spare thread per stalled send, at most twice the configured delivery
+     * threads, and sends beyond that wait in the queue.
+     */
+    @Scheduled(fixedDelayString = "${shareit.request.events.send-timeout}")
+    public void expireStalledSends() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.expireIfStalled(now)));
+    }
+
+    private synchronized boolean resizeDelivery(int delta) {
+        if (!(delivery instanceof ThreadPoolExecutor) || extraThreads + delta > maxExtraThreads) {
+            return false;
+        }
+        extraThreads += delta;
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) delivery;
+        int threads = pool.getCorePoolSize() + delta;
+        if (delta > 0) {
+            pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        } else {
+            pool.setCorePoolSize(threads);
+            pool.setMaximumPoolSize(threads);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int buffered() {
+        return buffered.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            try {
+                subscriber.emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("request answer subscriber of user {} is already gone", subscriber.userId);
+            }
+        }));
+        if (delivery instanceof ExecutorService) {
+            ((ExecutorService) delivery).shutdown();
+        }
+    }
+
+    private class Subscriber {
+
+        private final long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<ItemDto> queue = new ArrayDeque<>();
+        private final Object sendLock = new Object();
+        private boolean scheduled;
+        private boolean closed;
+        private boolean sending;
+        private boolean stalledSend;
+        private boolean spareThread;
+        private long sendingSince;
+
+        Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(ItemDto item) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() == bufferSize) {
+                queue.pollFirst();
+                buffered.decrementAndGet();
+                dropped.increment();
+            }
+            queue.addLast(item);
+            buffered.incrementAndGet();
+            if (!scheduled) {
+                scheduled = true;
+                delivery.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            ItemDto item;
+            while ((item = poll()) != null) {
+                synchronized (sendLock) {
+                    sending = true;
+                    sendingSince = System.nanoTime();
+                }
+                boolean expired;
+                try {
+                    emitter.send(SseEmitter.event().name("item").id(String.valueOf(item.getId()))
+                            .data(item, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("request answer subscriber of user {} is gone", userId);
+                    close();
+                    return;
+                } finally {
+                    expired = sent();
+                }
+                if (expired) {
+                    // the container already failed the request when the send threw, so only a send that got
+                    // through after being expired leaves a live stream to end here
+                    fail();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Ends the current send and tells whether the watchdog expired it meanwhile.
+         */
+        private boolean sent() {
+            synchronized (sendLock) {
+                sending = false;
+                if (spareThread) {
+                    spareThread = false;
+                    resizeDelivery(-1);
+                }
+                return stalledSend;
+            }
+        }
+
+        private void fail() {
+            try {
+                emitter.completeWithError(new IOException("subscriber stopped reading"));
+            } catch (RuntimeException e) {
+                log.debug("request answer subscriber of user {} is already gone", userId);
+            }
+        }
+
+        void expireIfStalled(long now) {
+            synchronized (sendLock) {
+                if (!sending || stalledSend || now - sendingSince < sendTimeoutNanos) {
+                    return;
+                }
+                log.debug("request answer subscriber of user {} stopped reading", userId);
+                stalled.increment();
+                stalledSend = true;
+                spareThread = resizeDelivery(1);
+            }
+            close();
+        }
+
+        synchronized ItemDto poll() {
+            ItemDto item = queue.pollFirst();
+            if (item == null) {
+                scheduled = false;
+            } else {
+                buffered.decrementAndGet();
+            }
+            return item;
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffered.addAndGet(-queue.size());
+            queue.clear();
+            size.decrementAndGet();
+            subscribers.computeIfPresent(userId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequesterIdOrderByCreatedAsc(long requesterId);
+    List<ItemRequest> findByRequesterIdOrderByCreatedAsc(long requesterId, PageRequest pageRequest);
 
-    Page<ItemRequest> findByIdIsNotOrderByCreatedAsc(long userId, PageRequest pageRequest);
+    @Query("select r from ItemRequest r where r.requester.id <> ?1 order by r.created desc, r.id desc")
+    List<ItemRequest> findOthers(long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requester.id <> ?1 " +
+            "and (r.created < ?2 or r.created = ?2 and r.id < ?3) order by r.created desc, r.id desc")
+    List<ItemRequest> findOthersBefore(long userId, LocalDateTime created, long id, Pageable pageable);
 }
\ No newline at end of file
@@ -8,9 +8,9 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequestDto createRequest(ItemRequestDto itemRequestDto, long userId);
 
-    List<ItemRequestDto> getAllRequestsByUserId(long userId);
+    List<ItemRequestDto> getAllRequestsByUserId(long userId, Integer from, Integer size);
 
-    List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
+    List<ItemRequestDto> getAllRequests(Long userId, Long after, Integer from, Integer size);
 
     ItemRequestDto getRequestById(long userId, long requestId);
 
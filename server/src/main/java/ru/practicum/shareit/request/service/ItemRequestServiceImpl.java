@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,6 +8,7 @@ import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -18,7 +18,11 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -41,27 +45,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequestsByUserId(long userId) {
+    public List<ItemRequestDto> getAllRequestsByUserId(long userId, Integer from, Integer size) {
 
         checkUser(userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequesterIdOrderByCreatedAsc(userId);
-        List<ItemRequestDto> result = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequests) {
-            result.add(addItemsToRequest(itemRequest));
-        }
-        return result;
+        PageRequest pageRequest = checkPageSize(from, size);
+        return addItemsToRequests(itemRequestRepository.findByRequesterIdOrderByCreatedAsc(userId, pageRequest));
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
+    public List<ItemRequestDto> getAllRequests(Long userId, Long after, Integer from, Integer size) {
 
         PageRequest pageRequest = checkPageSize(from, size);
-        Page<ItemRequest> itemRequests = itemRequestRepository.findByIdIsNotOrderByCreatedAsc(userId, pageRequest);
-        List<ItemRequestDto> result = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequests) {
-            result.add(addItemsToRequest(itemRequest));
+        if (after == null) {
+            return addItemsToRequests(itemRequestRepository.findOthers(userId, pageRequest));
         }
-        return result;
+        ItemRequest cursor = itemRequestRepository.findById(after)
+                .orElseThrow(() -> new NotFoundException(String.format("Запрос с id = %d не найден", after)));
+        return addItemsToRequests(itemRequestRepository.findOthersBefore(userId, cursor.getCreated(), cursor.getId(),
+                PageRequest.of(0, size)));
     }
 
     @Override
@@ -82,6 +83,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
+    private List<ItemRequestDto> addItemsToRequests(List<ItemRequest> itemRequests) {
+        List<ItemRequestDto> result = new ArrayList<>();
+        if (itemRequests.isEmpty()) {
+            return result;
+        }
+        Map<Long, List<ItemDto>> items = new HashMap<>();
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        for (Item item : itemRepository.findByRequestIdInOrderById(requestIds)) {
+            items.computeIfAbsent(item.getRequest().getId(), id -> new ArrayList<>()).add(ItemMapper.returnItemDto(item));
+        }
+        for (ItemRequest itemRequest : itemRequests) {
+            ItemRequestDto itemRequestDto = ItemRequestMapper.returnItemRequestDto(itemRequest);
+            itemRequestDto.setItems(items.getOrDefault(itemRequest.getId(), Collections.emptyList()));
+            result.add(itemRequestDto);
+        }
+        return result;
+    }
+
     private void checkUser(long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format("Пользователь с ID %d не найден", userId));
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
+    booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    status     VARCHAR(128),
+    version    BIGINT                      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_bookings PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_start ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
\ No newline at end of file
@@ -0,0 +1,37 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS
+        (setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search ON items USING gin (search_vector);
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
+    booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    status     VARCHAR(128),
+    version    BIGINT                      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_bookings PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+-- Exclusion constraints cannot span partitions, so this one and the monthly ones added by BookingPartitionManager
+-- only reject overlaps inside a single partition. Overlaps across months are rejected by BookingServiceImpl, which
+-- locks the item row before every overlap check and write of a WAITING or APPROVED booking.
+ALTER TABLE bookings_default
+    ADD CONSTRAINT ex_bookings_default_item_period
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_start ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
\ No newline at end of file
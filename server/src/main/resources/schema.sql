@@ -1,4 +1,6 @@
-DROP TABLE IF EXISTS bookings, items, requests, users, comments CASCADE;
+DROP TABLE IF EXISTS bookings, bookings_archive, booking_counters, booking_counter_clock, items, requests, users, comments CASCADE;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS items_seq;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -19,29 +21,70 @@ CREATE TABLE IF NOT EXISTS requests
     CONSTRAINT fk_request_requester_id FOREIGN KEY (requester_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR(200)                            NOT NULL,
     description  VARCHAR(2000)                           NOT NULL,
     is_available BOOLEAN                                 NOT NULL DEFAULT FALSE,
     owner_id     BIGINT                                  NOT NULL,
     request_id   BIGINT,
+    last_booking_id    BIGINT,
+    last_booker_id     BIGINT,
+    last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    last_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id    BIGINT,
+    next_booker_id     BIGINT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    version      BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_items PRIMARY KEY (id),
     CONSTRAINT fk_item_user_id FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_item_request_id FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
-CREATE TABLE IF NOT EXISTS bookings
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_items_next_booking_start ON items (next_booking_start);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS bookings_archive
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    start_date TIMESTAMP WITHOUT TIME ZONE,
-    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
     booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
-    status     VARCHAR(128)
+    status     VARCHAR(128),
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date);
+
+CREATE TABLE IF NOT EXISTS booking_counters
+(
+    user_id       BIGINT      NOT NULL,
+    role          VARCHAR(16) NOT NULL,
+    waiting_count BIGINT      NOT NULL DEFAULT 0,
+    current_count BIGINT      NOT NULL DEFAULT 0,
+    future_count  BIGINT      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_counters PRIMARY KEY (user_id, role)
 );
 
+CREATE TABLE IF NOT EXISTS booking_counter_clock
+(
+    id          INTEGER                     NOT NULL,
+    advanced_to TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_counter_clock PRIMARY KEY (id)
+);
+
+INSERT INTO booking_counter_clock (id, advanced_to) VALUES (1, LOCALTIMESTAMP);
 
 CREATE TABLE IF NOT EXISTS comments
 (
@@ -51,4 +94,6 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created   TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
\ No newline at end of file
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exception.BookingConflictException;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingApprovalConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static final int CALLS_PER_THREAD = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    private Booking booking;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@stress.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@stress.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @RepeatedTest(5)
+    void testConcurrentApproveAndReject() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            Callable<List<String>> task = () -> {
+                start.await();
+                List<String> outcomes = new ArrayList<>();
+                for (int j = 0; j < CALLS_PER_THREAD; j++) {
+                    try {
+                        outcomes.add(bookingService.approveBooking(owner.getId(), booking.getId(), approved).getStatus().name());
+                    } catch (BookingConflictException e) {
+                        outcomes.add("CONFLICT");
+                    } catch (ValidationException e) {
+                        outcomes.add("INVALID");
+                    }
+                }
+                return outcomes;
+            };
+            futures.add(executor.submit(task));
+        }
+        start.countDown();
+        List<String> approveOutcomes = new ArrayList<>();
+        List<String> rejectOutcomes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            (i % 2 == 0 ? approveOutcomes : rejectOutcomes).addAll(futures.get(i).get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Booking result = bookingRepository.findById(booking.getId()).orElseThrow();
+        long transitions = approveOutcomes.stream().filter("APPROVED"::equals).count()
+                + rejectOutcomes.stream().filter("REJECTED"::equals).count();
+        assertTrue(transitions > 0);
+        assertEquals(transitions, result.getVersion());
+        assertTrue(result.getStatus() == Status.APPROVED || result.getStatus() == Status.REJECTED);
+        assertTrue(approveOutcomes.stream().allMatch(outcome -> outcome.equals("APPROVED") || outcome.equals("INVALID")
+                || outcome.equals("CONFLICT")));
+        assertTrue(rejectOutcomes.stream().allMatch(outcome -> outcome.equals("REJECTED") || outcome.equals("CONFLICT")));
+    }
+
+    @Test
+    void testApproveRejectedBookingOverlappingAnother() {
+        bookingService.approveBooking(owner.getId(), booking.getId(), false);
+        bookingRepository.save(Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .status(Status.APPROVED)
+                .build());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+        assertEquals(Status.REJECTED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testApproveExpiredBooking() {
+        booking.setStatus(Status.EXPIRED);
+        long version = bookingRepository.save(booking).getVersion();
+
+        assertThrows(ValidationException.class, () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+        assertThrows(ValidationException.class, () -> bookingService.approveBooking(owner.getId(), booking.getId(), false));
+        Booking result = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.EXPIRED, result.getStatus());
+        assertEquals(version, result.getVersion());
+    }
+}
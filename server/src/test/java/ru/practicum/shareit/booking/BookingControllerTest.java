@@ -9,9 +9,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -25,9 +30,12 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -36,6 +44,12 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingCounterService bookingCounterService;
+
+    @MockBean
+    private BookingExporter bookingExporter;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -103,6 +117,27 @@ public class BookingControllerTest {
     }
 
 
+    @Test
+    void testCreateBookings() throws Exception {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).booking(outputBookingDto1).build(),
+                BookingBatchResultDto.builder().index(1).error("Позиция с ID 2 не найдена").build());
+        when(bookingService.addBookings(anyList(), anyLong())).thenReturn(results);
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(outputBookingDto1.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Позиция с ID 2 не найдена")));
+
+        verify(bookingService, times(1)).addBookings(List.of(bookingDto, bookingDto), 1L);
+    }
+
     @Test
     void testApproveBooking() throws Exception {
         when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean())).thenReturn(outputBookingDto1);
@@ -140,7 +175,7 @@ public class BookingControllerTest {
 
     @Test
     void testGetAllBookingsByBookerId() throws Exception {
-        when(bookingService.getBookingsByBookerId(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of(outputBookingDto1, outputBookingDto2));
+        when(bookingService.getBookingsByBookerId(anyLong(), anyString(), anyInt(), anyInt(), isNull())).thenReturn(List.of(outputBookingDto1, outputBookingDto2));
         mvc.perform(get("/bookings")
                         .param("state", "ALL")
                         .param("from", String.valueOf(0))
@@ -149,12 +184,12 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(outputBookingDto1, outputBookingDto2))));
 
-        verify(bookingService, times(1)).getBookingsByBookerId(1L, "ALL", 0, 10);
+        verify(bookingService, times(1)).getBookingsByBookerId(1L, "ALL", 0, 10, null);
     }
 
     @Test
     void testGetAllBookingsForAllItemsByOwnerId() throws Exception {
-        when(bookingService.getBookingsForItemsByOwnerId(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of(outputBookingDto1, outputBookingDto2));
+        when(bookingService.getBookingsForItemsByOwnerId(anyLong(), anyString(), anyInt(), anyInt(), isNull())).thenReturn(List.of(outputBookingDto1, outputBookingDto2));
         mvc.perform(get("/bookings/owner")
                         .param("state", "ALL")
                         .param("from", String.valueOf(0))
@@ -163,7 +198,55 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(outputBookingDto1, outputBookingDto2))));
 
-        verify(bookingService, times(1)).getBookingsForItemsByOwnerId(1L, "ALL", 0, 10);
+        verify(bookingService, times(1)).getBookingsForItemsByOwnerId(1L, "ALL", 0, 10, null);
+    }
+
+    @Test
+    void testGetAllBookingsByBookerIdAfterCursor() throws Exception {
+        when(bookingService.getBookingsByBookerId(anyLong(), anyString(), anyInt(), anyInt(), anyString())).thenReturn(List.of(outputBookingDto2));
+        mvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(10))
+                        .param("after", "2023-09-04T16:00,3")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(outputBookingDto2))));
+
+        verify(bookingService, times(1)).getBookingsByBookerId(1L, "ALL", 0, 10, "2023-09-04T16:00,3");
+    }
+
+    @Test
+    void testGetBookingCounts() throws Exception {
+        BookingCountsDto counts = new BookingCountsDto(1, 2, 3);
+        when(bookingCounterService.getCounts(anyLong(), any(BookingRole.class))).thenReturn(counts);
+        mvc.perform(get("/bookings/counts")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(counts)));
+        mvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.future", is(3)));
+
+        verify(bookingCounterService, times(1)).getCounts(1L, BookingRole.BOOKER);
+        verify(bookingCounterService, times(1)).getCounts(2L, BookingRole.OWNER);
+    }
+
+    @Test
+    void testExportBookingsForOwner() throws Exception {
+        String body = mapper.writeValueAsString(outputBookingDto1) + "\n" + mapper.writeValueAsString(outputBookingDto2) + "\n";
+        StreamingResponseBody export = out -> out.write(body.getBytes(StandardCharsets.UTF_8));
+        when(bookingExporter.exportByOwnerId(anyLong())).thenReturn(export);
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(body));
+
+        verify(bookingExporter, times(1)).exportByOwnerId(1L);
     }
 
     @Test
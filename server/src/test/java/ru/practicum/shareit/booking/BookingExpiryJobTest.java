@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingExpiryJobTest {
+
+    private BookingService bookingService;
+
+    private BookingRepository bookingRepository;
+
+    private SimpleMeterRegistry registry;
+
+    private BookingExpiryJob job;
+
+    @BeforeEach
+    void beforeEach() {
+        bookingService = mock(BookingService.class);
+        bookingRepository = mock(BookingRepository.class);
+        registry = new SimpleMeterRegistry();
+        job = new BookingExpiryJob(bookingService, bookingRepository, registry, 10, 3);
+    }
+
+    @Test
+    void testExpireRunsUntilBatchIsNotFull() {
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), anyInt())).thenReturn(10, 4);
+        when(bookingRepository.findFirstByStatusAndStartBeforeOrderByStartAsc(eq(Status.WAITING), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        job.expire();
+
+        verify(bookingService, times(2)).expireWaitingBookings(any(LocalDateTime.class), eq(10));
+        assertEquals(14, registry.get("shareit.bookings.expired").counter().count());
+        assertEquals(1, registry.get("shareit.bookings.expiry.run").timer().count());
+        assertEquals(0, registry.get("shareit.bookings.expiry.lag").gauge().value());
+    }
+
+    @Test
+    void testExpireStopsAfterMaxBatchesAndReportsLag() {
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), anyInt())).thenReturn(10);
+        when(bookingRepository.findFirstByStatusAndStartBeforeOrderByStartAsc(eq(Status.WAITING), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(Booking.builder().start(LocalDateTime.now().minusHours(1)).build()));
+
+        job.expire();
+
+        verify(bookingService, times(3)).expireWaitingBookings(any(LocalDateTime.class), eq(10));
+        assertEquals(30, registry.get("shareit.bookings.expired").counter().count());
+        assertTrue(registry.get("shareit.bookings.expiry.lag").gauge().value() >= 3600);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exception.BookingConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingOverlapConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@overlap.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@overlap.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @RepeatedTest(3)
+    void testConcurrentBookingsAcrossMonthBoundary() throws Exception {
+        LocalDateTime boundary = YearMonth.now().plusMonths(2).atDay(1).atStartOfDay();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BookingDto bookingDto = BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(boundary.minusHours(12).plusMinutes(i))
+                    .end(boundary.plusHours(12).plusMinutes(i))
+                    .build();
+            Callable<String> task = () -> {
+                start.await();
+                try {
+                    return bookingService.addBooking(bookingDto, booker.getId()).getStatus().name();
+                } catch (BookingConflictException e) {
+                    return "CONFLICT";
+                }
+            };
+            futures.add(executor.submit(task));
+        }
+        start.countDown();
+        List<String> outcomes = new ArrayList<>();
+        for (Future<String> future : futures) {
+            outcomes.add(future.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, outcomes.stream().filter("WAITING"::equals).count(), outcomes.toString());
+        assertEquals(THREADS - 1, outcomes.stream().filter("CONFLICT"::equals).count());
+        assertEquals(1, bookingRepository.count());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.RecordingStatementInspector;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.RecordingStatementInspector")
+@AutoConfigureMockMvc
+class BookingQueryCountTest {
+
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    private User booker;
+
+    private List<Item> items;
+
+    private List<Booking> bookings;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@count.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@count.ru").build());
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            User requester = userRepository.save(User.builder().name("requester" + i).email("requester" + i + "@count.ru").build());
+            ItemRequest request = ItemRequest.builder()
+                    .description("request " + i)
+                    .requester(requester)
+                    .created(LocalDateTime.now())
+                    .build();
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            items.add(item);
+            bookings.add(bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build()));
+        }
+        RecordingStatementInspector.reset();
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGetBookingsByBookerIdQueryCount() throws Exception {
+        int archiveLookups = 1;
+        for (BookingState state : BookingState.values()) {
+            RecordingStatementInspector.reset();
+            mvc.perform(get("/bookings")
+                            .param("state", state.name())
+                            .header(HEADER_USER_ID, booker.getId()))
+                    .andExpect(status().isOk());
+
+            int lookups = archived(state) ? archiveLookups : 0;
+            assertEquals(2 + lookups, RecordingStatementInspector.statements().size(), state.name());
+            archiveLookups -= lookups;
+        }
+    }
+
+    @Test
+    void testGetBookingsForOwnerQueryCount() throws Exception {
+        int ownershipQueries = 1;
+        int archiveLookups = 1;
+        for (BookingState state : BookingState.values()) {
+            RecordingStatementInspector.reset();
+            mvc.perform(get("/bookings/owner")
+                            .param("state", state.name())
+                            .header(HEADER_USER_ID, owner.getId()))
+                    .andExpect(status().isOk());
+
+            int lookups = archived(state) ? archiveLookups : 0;
+            assertEquals(2 + ownershipQueries + lookups, RecordingStatementInspector.statements().size(), state.name());
+            ownershipQueries = 0;
+            archiveLookups -= lookups;
+        }
+    }
+
+    @Test
+    void testGetFullPageQueryCount() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .param("size", "10")
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(10)))
+                .andExpect(jsonPath("$[0].item.requestId").isNumber());
+
+        assertEquals(4, RecordingStatementInspector.statements().size());
+    }
+
+    @Test
+    void testGetBookingByIdQueryCount() throws Exception {
+        mvc.perform(get("/bookings/{bookingId}", bookings.get(0).getId())
+                        .header(HEADER_USER_ID, booker.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(2, RecordingStatementInspector.statements().size());
+    }
+
+    @Test
+    void testApproveBookingQueryCount() throws Exception {
+        mvc.perform(patch("/bookings/{bookingId}", bookings.get(0).getId())
+                        .param("approved", "true")
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(7, RecordingStatementInspector.statements().size());
+    }
+
+    @Test
+    void testAddBookingQueryCount() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+        mvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\": " + items.get(0).getId() + ", \"start\": \"" + start
+                                + "\", \"end\": \"" + start.plusDays(1) + "\"}")
+                        .header(HEADER_USER_ID, booker.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(6, RecordingStatementInspector.statements().size());
+    }
+
+    @Test
+    void testAddBookingsUsesBatchInsert() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+        StringBuilder content = new StringBuilder("[");
+        for (Item item : items) {
+            content.append("{\"itemId\": ").append(item.getId())
+                    .append(", \"start\": \"").append(start)
+                    .append("\", \"end\": \"").append(start.plusDays(1)).append("\"},");
+        }
+        content.append("{\"itemId\": ").append(items.get(0).getId())
+                .append(", \"start\": \"").append(start)
+                .append("\", \"end\": \"").append(start.plusDays(1)).append("\"}]");
+        mvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content.toString())
+                        .header(HEADER_USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(11)))
+                .andExpect(jsonPath("$[0].booking.id").isNumber())
+                .andExpect(jsonPath("$[10].error").isString());
+
+        List<String> statements = RecordingStatementInspector.statements();
+        assertEquals(1, statements.stream().filter(sql -> sql.contains("insert into bookings")).count());
+        assertEquals(20, bookingRepository.count());
+    }
+
+    private boolean archived(BookingState state) {
+        return EnumSet.of(BookingState.ALL, BookingState.PAST, BookingState.REJECTED, BookingState.EXPIRED).contains(state);
+    }
+}
\ No newline at end of file
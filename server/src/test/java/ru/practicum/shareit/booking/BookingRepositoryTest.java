@@ -0,0 +1,289 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ArchivedBookingRepository archivedBookingRepository;
+
+    User owner;
+
+    User booker;
+
+    Item item;
+
+    LocalDateTime start;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("vasiliy")
+                .email("vasiliy@yandex.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("ivan")
+                .email("ivan@yandex.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("ringOfForce")
+                .description("from movie ringOfForce")
+                .available(true)
+                .owner(owner)
+                .build());
+        start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(start.plusDays(5))
+                .end(start.plusDays(6))
+                .item(item)
+                .booker(booker)
+                .status(Status.REJECTED)
+                .build());
+    }
+
+    @Test
+    void testOverlappingBookingFound() {
+        assertTrue(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.BLOCKING,
+                start.plusDays(3), start.plusDays(1)));
+        assertTrue(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.BLOCKING,
+                start.plusHours(1), start.minusDays(1)));
+    }
+
+    @Test
+    void testAdjacentBookingNotOverlapping() {
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.BLOCKING,
+                start.plusDays(3), start.plusDays(2)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.BLOCKING,
+                start, start.minusDays(1)));
+    }
+
+    @Test
+    void testRejectedBookingNotBlocking() {
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.BLOCKING,
+                start.plusDays(6), start.plusDays(5)));
+    }
+
+    @Test
+    void testKeysetPagesMatchOffsetOrder() {
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(10))
+                    .end(start.plusDays(11 + i))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build());
+        }
+        List<Booking> expected = bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.ALL,
+                LocalDateTime.now(), null, PageRequest.of(0, 10)).getContent();
+        List<Booking> actual = new ArrayList<>();
+        Slice<Booking> page = bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.ALL,
+                LocalDateTime.now(), null, PageRequest.of(0, 3));
+        actual.addAll(page.getContent());
+        while (page.hasNext()) {
+            Booking last = actual.get(actual.size() - 1);
+            page = bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.ALL, LocalDateTime.now(),
+                    BookingCursor.parse(last.getStart() + "," + last.getId()), PageRequest.of(0, 3));
+            actual.addAll(page.getContent());
+        }
+
+        assertEquals(7, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testStateQueryFilters() {
+        LocalDateTime now = start.plusDays(1);
+
+        assertEquals(1, bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.CURRENT, now, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+        assertEquals(1, bookingRepository.findByState(BookingRole.OWNER, owner.getId(), BookingState.FUTURE, now, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+        assertEquals(1, bookingRepository.findByState(BookingRole.OWNER, owner.getId(), BookingState.REJECTED, now, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+        assertEquals(0, bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.PAST, now, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+        assertEquals(0, bookingRepository.findByState(BookingRole.BOOKER, owner.getId(), BookingState.ALL, now, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+    }
+
+    @Test
+    void testExpireWaitingBookings() {
+        Booking stale = bookingRepository.save(Booking.builder()
+                .start(start.minusDays(3))
+                .end(start.minusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(start.plusDays(10))
+                .end(start.plusDays(11))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+
+        List<Booking> claimed = bookingRepository.findByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, start,
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(stale), claimed);
+        assertEquals(1, bookingRepository.updateStatus(List.of(stale.getId()), Status.EXPIRED));
+        assertEquals(Status.EXPIRED, bookingRepository.findById(stale.getId()).orElseThrow().getStatus());
+        assertEquals(1, bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.EXPIRED, start, null,
+                PageRequest.of(0, 10)).getNumberOfElements());
+        assertTrue(bookingRepository.findFirstByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, start).isEmpty());
+    }
+
+    @Test
+    void testArchiveFinishedBookings() {
+        Booking finished = bookingRepository.save(Booking.builder()
+                .start(start.minusYears(2))
+                .end(start.minusYears(2).plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+
+        List<Booking> claimed = bookingRepository.findByEndBeforeOrderByEndAsc(start.minusYears(1), PageRequest.of(0, 10));
+
+        assertEquals(List.of(finished), claimed);
+        assertEquals(1, bookingRepository.copyToArchive(List.of(finished.getId())));
+        bookingRepository.deleteAllByIdInBatch(List.of(finished.getId()));
+        assertFalse(bookingRepository.existsById(finished.getId()));
+        assertEquals(Status.APPROVED, archivedBookingRepository.findById(finished.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testStateQueryMergesArchive() {
+        LocalDateTime now = start.plusYears(2);
+        List<Long> archivedIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            archivedIds.add(archivedBookingRepository.save(ArchivedBooking.builder()
+                    .id(1000L + i)
+                    .start(start.minusYears(1).plusDays(i))
+                    .end(start.minusYears(1).plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .build()).getId());
+        }
+
+        List<Booking> all = bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.ALL, now, null,
+                PageRequest.of(0, 10)).getContent();
+        assertEquals(5, all.size());
+        assertEquals(List.of(1003L, 1002L, 1001L), List.of(all.get(2).getId(), all.get(3).getId(), all.get(4).getId()));
+
+        List<Booking> pages = new ArrayList<>();
+        Slice<Booking> page = bookingRepository.findByState(BookingRole.OWNER, owner.getId(), BookingState.PAST, now, null,
+                PageRequest.of(0, 2));
+        pages.addAll(page.getContent());
+        while (page.hasNext()) {
+            Booking last = pages.get(pages.size() - 1);
+            page = bookingRepository.findByState(BookingRole.OWNER, owner.getId(), BookingState.PAST, now,
+                    BookingCursor.parse(last.getStart() + "," + last.getId()), PageRequest.of(0, 2));
+            pages.addAll(page.getContent());
+        }
+        assertEquals(all, pages);
+        assertEquals(archivedIds.get(0), pages.get(4).getId());
+
+        Slice<Booking> offsetPage = bookingRepository.findByState(BookingRole.BOOKER, booker.getId(), BookingState.ALL, now,
+                null, PageRequest.of(1, 3));
+        assertEquals(List.of(all.get(3), all.get(4)), offsetPage.getContent());
+        assertFalse(offsetPage.hasNext());
+    }
+
+    @Test
+    void testFindLastAndNextByItemIdIn() {
+        Item other = itemRepository.save(Item.builder()
+                .name("saw")
+                .description("good saw")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking earlier = save(item, start.minusDays(10), Status.APPROVED);
+        Booking next = save(item, start.plusDays(10), Status.APPROVED);
+        save(item, start.plusDays(20), Status.APPROVED);
+        save(item, start.plusDays(3), Status.WAITING);
+        Booking otherLast = save(other, start.minusDays(1), Status.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(item.getId(), other.getId()),
+                Status.APPROVED.name(), start.plusDays(1));
+
+        assertEquals(3, bookings.size());
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getStart().equals(start) && booking.getItem().equals(item)));
+        assertTrue(bookings.contains(next));
+        assertTrue(bookings.contains(otherLast));
+        assertFalse(bookings.contains(earlier));
+    }
+
+    @Test
+    void testStreamByOwnerId() {
+        archivedBookingRepository.save(ArchivedBooking.builder()
+                .id(1001L)
+                .start(start.minusYears(1))
+                .end(start.minusYears(1).plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+
+        try (Stream<Booking> bookings = bookingRepository.streamByOwnerId(owner.getId())) {
+            assertEquals(List.of(start.plusDays(5), start), bookings.map(Booking::getStart).collect(Collectors.toList()));
+        }
+        try (Stream<ArchivedBooking> bookings = archivedBookingRepository.streamByOwnerId(owner.getId())) {
+            assertEquals(List.of(1001L), bookings.map(ArchivedBooking::getId).collect(Collectors.toList()));
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamByOwnerId(booker.getId())) {
+            assertEquals(0, bookings.count());
+        }
+    }
+
+    private Booking save(Item item, LocalDateTime start, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.RecordingStatementInspector;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.RecordingStatementInspector")
+class BookingStateQueryPlanTest {
+
+    private static final int USERS = 2_000;
+    private static final int ITEMS = 20_000;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int PAGE_SIZE = 10;
+    private static final Set<BookingState> STATUS_STATES = EnumSet.of(BookingState.WAITING, BookingState.REJECTED,
+            BookingState.EXPIRED);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQL10Dialect");
+        registry.add("shareit.item.search.engine", () -> "fulltext");
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        seed();
+        RecordingStatementInspector.reset();
+    }
+
+    @Test
+    void testEveryStateUsesIndex() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor cursor = BookingCursor.parse(now + "," + Long.MAX_VALUE);
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                RecordingStatementInspector.reset();
+                bookingRepository.findByState(role, 1L, state, now, null, PageRequest.of(0, PAGE_SIZE));
+                bookingRepository.findByState(role, 1L, state, now, cursor, PageRequest.of(0, PAGE_SIZE));
+                List<String> selects = bookingSelects();
+                assertFalse(selects.isEmpty(), role + " " + state);
+                for (String sql : selects) {
+                    assertIndexScan(explain(sql, state, now), role, state);
+                }
+            }
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into users (name, email) " +
+                "select 'user' || g, 'user' || g || '@plan.ru' from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) " +
+                "select g, 'item' || g, 'item' || g, true, (g % ?) + 1 from generate_series(1, ?) g", USERS, ITEMS);
+        // Bookings of one item are 40 days apart and last at most 30, so the exclusion constraint is never hit.
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "select g, b.start_date, b.start_date + ((g % 30) + 1) * interval '1 day', (g % ?) + 1, " +
+                        "((g * 7) % ?) + 1, (array['WAITING', 'APPROVED', 'REJECTED', 'EXPIRED'])[((g / ?) % 4) + 1] " +
+                        "from generate_series(0, ? - 1) g, " +
+                        "lateral (select localtimestamp - interval '200 days' + (g / ?) * interval '40 days' as start_date) b",
+                ITEMS, USERS, ITEMS, ITEMS * BOOKINGS_PER_ITEM, ITEMS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private List<String> bookingSelects() {
+        List<String> selects = new ArrayList<>();
+        for (String sql : RecordingStatementInspector.statements()) {
+            if (sql.contains(" from bookings ")) {
+                selects.add(sql);
+            }
+        }
+        return selects;
+    }
+
+    private void assertIndexScan(String plan, BookingRole role, BookingState state) {
+        String message = role + " " + state + ": " + plan;
+        assertFalse(plan.contains("Seq Scan on bookings"), message);
+        boolean indexed = false;
+        for (String index : expectedIndexes(role, state)) {
+            for (String name : indexNames(index)) {
+                indexed |= plan.contains(" " + name + " ");
+            }
+        }
+        assertTrue(indexed, message);
+    }
+
+    private List<String> expectedIndexes(BookingRole role, BookingState state) {
+        if (role == BookingRole.BOOKER) {
+            return List.of("idx_bookings_booker_start");
+        }
+        if (STATUS_STATES.contains(state)) {
+            return List.of("idx_bookings_item_status_start");
+        }
+        return List.of("idx_bookings_item_period", "idx_bookings_item_status_start");
+    }
+
+    private List<String> indexNames(String index) {
+        List<String> names = new ArrayList<>(jdbcTemplate.queryForList("select c.relname from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid where i.inhparent = ?::regclass", String.class, index));
+        names.add(index);
+        return names;
+    }
+
+    private String explain(String sql, BookingState state, LocalDateTime now) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            int count = statement.getParameterMetaData().getParameterCount();
+            boolean userBound = false;
+            for (int i = 1; i < count; i++) {
+                switch (statement.getParameterMetaData().getParameterType(i)) {
+                    case Types.TIMESTAMP:
+                        statement.setObject(i, now);
+                        break;
+                    case Types.VARCHAR:
+                        statement.setString(i, state.name());
+                        break;
+                    default:
+                        statement.setLong(i, userBound ? Long.MAX_VALUE : 1L);
+                        userBound = true;
+                        break;
+                }
+            }
+            statement.setInt(count, PAGE_SIZE + 1);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingCounterRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookingCounterServiceTest {
+
+    @Autowired
+    private BookingCounterService bookingCounterService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingCounterRepository bookingCounterRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        now = LocalDateTime.now().withNano(0);
+        jdbcTemplate.update("update booking_counter_clock set advanced_to = ? where id = 1", now);
+        owner = userRepository.save(User.builder().name("owner").email("owner@counter.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@counter.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("saw")
+                .description("good saw")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingCounterRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGetCountsInitializesFromBookings() {
+        save(now.minusHours(1), now.plusHours(1), Status.APPROVED);
+        save(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        save(now.minusDays(2), now.minusDays(1), Status.REJECTED);
+
+        assertEquals(new BookingCountsDto(1, 1, 1), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+        assertEquals(new BookingCountsDto(1, 1, 1), bookingCounterService.getCounts(owner.getId(), BookingRole.OWNER));
+        assertEquals(new BookingCountsDto(0, 0, 0), bookingCounterService.getCounts(owner.getId(), BookingRole.BOOKER));
+    }
+
+    @Test
+    void testCountersFollowBookingLifecycle() {
+        bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER);
+        bookingCounterService.getCounts(owner.getId(), BookingRole.OWNER);
+
+        long bookingId = bookingService.addBooking(BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build(), booker.getId()).getId();
+        assertEquals(new BookingCountsDto(1, 0, 1), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+        assertEquals(new BookingCountsDto(1, 0, 1), bookingCounterService.getCounts(owner.getId(), BookingRole.OWNER));
+
+        bookingService.approveBooking(owner.getId(), bookingId, true);
+        assertEquals(new BookingCountsDto(0, 0, 1), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+        assertEquals(new BookingCountsDto(0, 0, 1), bookingCounterService.getCounts(owner.getId(), BookingRole.OWNER));
+    }
+
+    @Test
+    void testAdvanceMovesBookingsBetweenStates() {
+        save(now.plusHours(1), now.plusHours(2), Status.APPROVED);
+        assertEquals(new BookingCountsDto(0, 0, 1), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+
+        bookingCounterService.advance(now.plusMinutes(90));
+        assertEquals(new BookingCountsDto(0, 1, 0), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+
+        bookingCounterService.advance(now.plusHours(3));
+        assertEquals(new BookingCountsDto(0, 0, 0), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+    }
+
+    @Test
+    void testReconcileRepairsDrift() {
+        save(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        bookingCounterRepository.save(new BookingCounter(booker.getId(), BookingRole.BOOKER, 5, 5, 5));
+        bookingCounterRepository.save(new BookingCounter(owner.getId(), BookingRole.OWNER, 1, 0, 1));
+
+        List<Long> userIds = bookingCounterService.findCountedUserIds(0, 10);
+
+        assertEquals(1, bookingCounterService.reconcile(userIds));
+        assertEquals(new BookingCountsDto(1, 0, 1), bookingCounterService.getCounts(booker.getId(), BookingRole.BOOKER));
+    }
+
+    private void save(LocalDateTime start, LocalDateTime end, Status status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
\ No newline at end of file
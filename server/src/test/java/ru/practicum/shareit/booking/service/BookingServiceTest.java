@@ -5,13 +5,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.OutputBookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.BookingConflictException;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -22,19 +31,29 @@ import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class BookingServiceTest {
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private BookingService bookingService;
 
@@ -47,6 +66,12 @@ public class BookingServiceTest {
     @MockBean
     private BookingRepository bookingRepository;
 
+    @MockBean
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @MockBean
+    private BookingCounterService bookingCounterService;
+
     private User user1;
     private User user2;
     private Item item;
@@ -57,6 +82,8 @@ public class BookingServiceTest {
 
     @BeforeEach
     void beforeEach() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
         user1 = User.builder()
                 .id(1L)
                 .name("vasiliy")
@@ -102,23 +129,104 @@ public class BookingServiceTest {
     @Test
     void testAddBooking() {
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking1);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking1);
         OutputBookingDto bookingOutDtoTest = bookingService.addBooking(bookingDto, anyLong());
 
         assertEquals(bookingOutDtoTest.getItem(), itemDto);
         assertEquals(bookingOutDtoTest.getStatus(), booking1.getStatus());
         assertEquals(bookingOutDtoTest.getBooker(), UserMapper.returnUserDto(user2));
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void testAddBookingOverlapping() {
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookingDto, user2.getId()));
+
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void testAddBookingConstraintViolation() {
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("ex_bookings_item_period",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookingDto, user2.getId()));
+    }
+
+    @Test
+    void testAddBookingForeignKeyViolation() {
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("bookings_booker_id_fkey",
+                new SQLException("insert or update violates foreign key constraint", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.addBooking(bookingDto, user2.getId()));
+    }
+
+    @Test
+    void testAddBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto valid = BookingDto.builder().itemId(1L).start(start).end(start.plusHours(2)).build();
+        BookingDto overlapping = BookingDto.builder().itemId(1L).start(start.plusHours(1)).end(start.plusHours(3)).build();
+        BookingDto unknownItem = BookingDto.builder().itemId(99L).start(start).end(start.plusHours(2)).build();
+        BookingDto past = BookingDto.builder().itemId(1L).start(start.minusDays(2)).end(start.minusDays(1)).build();
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
+        when(itemRepository.findLockedByIdInOrderById(anyCollection())).thenReturn(List.of(item));
+        when(bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(anyCollection(), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(List.of(valid, overlapping, unknownItem, past), user2.getId());
+
+        assertEquals(4, results.size());
+        assertNull(results.get(0).getError());
+        assertEquals(Status.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals(UserMapper.returnUserDto(user2), results.get(0).getBooking().getBooker());
+        assertNotNull(results.get(1).getError());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(2).getError());
+        assertNotNull(results.get(3).getError());
+        verify(itemRepository, times(1)).findLockedByIdInOrderById(Set.of(1L, 99L));
+        verify(bookingRepository, times(1)).saveAllAndFlush(argThat(bookings -> ((List<Booking>) bookings).size() == 1));
+    }
+
+    @Test
+    void testAddBookingsExistingOverlap() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto dto = BookingDto.builder().itemId(1L).start(start).end(start.plusHours(2)).build();
+        Booking existing = Booking.builder().id(5L).start(start.minusHours(1)).end(start.plusHours(1))
+                .item(item).booker(user1).status(Status.APPROVED).build();
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
+        when(itemRepository.findLockedByIdInOrderById(anyCollection())).thenReturn(List.of(item));
+        when(bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(anyCollection(), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(existing));
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(List.of(dto), user2.getId());
+
+        assertNotNull(results.get(0).getError());
+    }
+
+    @Test
+    void testAddBookingsWrongSize() {
+        assertThrows(ValidationException.class, () -> bookingService.addBookings(List.of(), user2.getId()));
+
+        verify(bookingRepository, never()).saveAllAndFlush(anyIterable());
     }
 
     @Test
     void testAddBookingWrongOwner() {
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
 
@@ -130,7 +238,7 @@ public class BookingServiceTest {
 
         item.setAvailable(false);
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
 
@@ -140,7 +248,7 @@ public class BookingServiceTest {
     @Test
     void testAddBookingNotValidDateEnd() {
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
         bookingDto.setEnd(LocalDateTime.of(2020, 11, 11, 11, 11));
@@ -151,7 +259,7 @@ public class BookingServiceTest {
     @Test
     void testAddBookingNotValidDateStart() {
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user2));
         bookingDto.setStart(LocalDateTime.of(2024, 11, 11, 11, 11));
@@ -161,170 +269,241 @@ public class BookingServiceTest {
 
     @Test
     void testApproveBooking() {
-        OutputBookingDto bookingOutDtoTest;
-        when(bookingRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking2));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking2);
-        bookingOutDtoTest = bookingService.approveBooking(user1.getId(), item.getId(), true);
+        when(bookingRepository.updateStatus(anyLong(), anyLong(), anyCollection(), any(Status.class))).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
+        OutputBookingDto bookingOutDtoTest = bookingService.approveBooking(user1.getId(), booking1.getId(), true);
 
         assertEquals(bookingOutDtoTest.getStatus(), Status.APPROVED);
 
-        bookingOutDtoTest = bookingService.approveBooking(user1.getId(), item.getId(), false);
+        verify(bookingRepository, times(1)).updateStatus(booking1.getId(), user1.getId(), Set.of(Status.WAITING), Status.APPROVED);
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingCounterService, times(1)).bookingsResolved(List.of(booking1));
+    }
+
+    @Test
+    void testRejectBooking() {
+        booking2.setStatus(Status.REJECTED);
+        when(bookingRepository.updateStatus(anyLong(), anyLong(), anyCollection(), any(Status.class))).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking2));
+        OutputBookingDto bookingOutDtoTest = bookingService.approveBooking(user1.getId(), booking2.getId(), false);
 
         assertEquals(bookingOutDtoTest.getStatus(), Status.REJECTED);
 
-        verify(bookingRepository, times(2)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).updateStatus(booking2.getId(), user1.getId(), Set.of(Status.WAITING), Status.REJECTED);
     }
 
     @Test
-    void testApproveBookingWrongUser() {
-        when(bookingRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking2));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking2);
+    void testRejectBookingTwice() {
+        booking2.setStatus(Status.REJECTED);
+        when(bookingRepository.updateStatus(booking2.getId(), user1.getId(), Set.of(Status.REJECTED), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking2));
+        OutputBookingDto bookingOutDtoTest = bookingService.approveBooking(user1.getId(), booking2.getId(), false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.approveBooking(user2.getId(), item.getId(), true));
+        assertEquals(bookingOutDtoTest.getStatus(), Status.REJECTED);
+
+        verify(bookingRepository, times(1)).updateStatus(booking2.getId(), user1.getId(), Set.of(Status.REJECTED), Status.REJECTED);
+        verify(bookingCounterService, never()).bookingsResolved(anyCollection());
     }
 
     @Test
-    void testApproveBookingNotValidStatus() {
-        when(bookingRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking1);
+    void testRejectApprovedBooking() {
+        when(bookingRepository.updateStatus(booking1.getId(), user1.getId(), Set.of(Status.APPROVED), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
+        bookingService.approveBooking(user1.getId(), booking1.getId(), false);
+
+        verify(bookingRepository, times(1)).updateStatus(booking1.getId(), user1.getId(), Set.of(Status.APPROVED), Status.REJECTED);
+        verify(itemRepository, never()).lockById(anyLong());
+        verify(bookingCounterService, never()).bookingsResolved(anyCollection());
+    }
 
-        assertThrows(ValidationException.class, () -> bookingService.approveBooking(user1.getId(), item.getId(), true));
+    @Test
+    void testApproveRejectedBooking() {
+        booking2.setStatus(Status.REJECTED);
+        when(bookingRepository.updateStatus(booking2.getId(), user1.getId(), Set.of(Status.REJECTED), Status.APPROVED)).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking2));
+        bookingService.approveBooking(user1.getId(), booking2.getId(), true);
+
+        verify(itemRepository, times(1)).lockById(item.getId());
+        verify(bookingRepository, times(1)).existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                booking2.getId(), Status.BLOCKING, booking2.getEnd(), booking2.getStart());
+        verify(bookingRepository, times(1)).updateStatus(booking2.getId(), user1.getId(), Set.of(Status.REJECTED), Status.APPROVED);
     }
 
     @Test
-    void testGetBookingById() {
-        when(bookingRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        OutputBookingDto bookingOutDtoTest = bookingService.getBookingById(user1.getId(), booking1.getId());
+    void testApproveRejectedBookingOverlapping() {
+        booking2.setStatus(Status.REJECTED);
+        when(bookingRepository.updateStatus(booking2.getId(), user1.getId(), Set.of(Status.REJECTED), Status.APPROVED)).thenReturn(1);
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking2));
+        when(bookingRepository.existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(anyLong(), anyLong(), anyCollection(),
+                any(), any())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(user1.getId(), booking2.getId(), true));
+    }
 
-        assertEquals(bookingOutDtoTest.getItem(), itemDto);
-        assertEquals(bookingOutDtoTest.getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.getBooker(), UserMapper.returnUserDto(user1));
+    @Test
+    void testRejectBookingChangedConcurrently() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
 
+        assertThrows(BookingConflictException.class, () -> bookingService.approveBooking(user1.getId(), booking1.getId(), false));
     }
 
     @Test
-    void testGetBookingByErrorId() {
-        when(bookingRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
+    void testApproveBookingWrongUser() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking2));
 
-        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(2L, booking1.getId()));
+        assertThrows(NotFoundException.class, () -> bookingService.approveBooking(user2.getId(), item.getId(), true));
     }
 
     @Test
-    void testGetAllBookingsByBookerId() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        String state = "ALL";
-        List<OutputBookingDto> bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+    void testApproveBookingNotFound() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.empty());
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        assertThrows(NotFoundException.class, () -> bookingService.approveBooking(user1.getId(), 99L, true));
+    }
 
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "CURRENT";
-        bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+    @Test
+    void testApproveBookingNotValidStatus() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        assertThrows(ValidationException.class, () -> bookingService.approveBooking(user1.getId(), item.getId(), true));
+    }
 
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "PAST";
-        bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+    @Test
+    void testExpireWaitingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, now, PageRequest.of(0, 2)))
+                .thenReturn(List.of(booking1, booking2));
+        when(bookingRepository.updateStatus(anyCollection(), any(Status.class))).thenReturn(2);
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        assertEquals(2, bookingService.expireWaitingBookings(now, 2));
 
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "FUTURE";
-        bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+        verify(bookingRepository, times(1)).updateStatus(List.of(booking1.getId(), booking2.getId()), Status.EXPIRED);
+    }
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+    @Test
+    void testExpireWaitingBookingsNothingToExpire() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, now, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
 
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "WAITING";
-        bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+        assertEquals(0, bookingService.expireWaitingBookings(now, 2));
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        verify(bookingRepository, never()).updateStatus(anyCollection(), any(Status.class));
+    }
 
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "REJECTED";
-        bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state, 5, 10);
+    @Test
+    void testArchiveFinishedBookings() {
+        LocalDateTime before = LocalDateTime.now().minusYears(1);
+        when(bookingRepository.findByEndBeforeOrderByEndAsc(before, PageRequest.of(0, 10))).thenReturn(List.of(booking1, booking2));
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        assertEquals(2, bookingService.archiveFinishedBookings(before, 10));
+
+        verify(bookingRepository, times(1)).copyToArchive(List.of(booking1.getId(), booking2.getId()));
+        verify(bookingRepository, times(1)).deleteAllByIdInBatch(List.of(booking1.getId(), booking2.getId()));
     }
 
     @Test
-    void testGetAllBookingsForAllItemsByOwnerId() {
+    void testGetArchivedBookingById() {
+        ArchivedBooking archivedBooking = ArchivedBooking.builder()
+                .id(5L)
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .item(item)
+                .booker(user2)
+                .status(Status.APPROVED)
+                .build();
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(archivedBooking));
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        String state = "ALL";
-        List<OutputBookingDto> bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+        OutputBookingDto bookingOutDtoTest = bookingService.getBookingById(user2.getId(), archivedBooking.getId());
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "CURRENT";
-        bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
+        assertEquals(archivedBooking.getId(), bookingOutDtoTest.getId());
+        assertEquals(Status.APPROVED, bookingOutDtoTest.getStatus());
+    }
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+    @Test
+    void testGetBookingById() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        OutputBookingDto bookingOutDtoTest = bookingService.getBookingById(user1.getId(), booking1.getId());
 
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "PAST";
-        bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
+        assertEquals(bookingOutDtoTest.getItem(), itemDto);
+        assertEquals(bookingOutDtoTest.getStatus(), booking1.getStatus());
+        assertEquals(bookingOutDtoTest.getBooker(), UserMapper.returnUserDto(user1));
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+    }
 
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "FUTURE";
-        bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
+    @Test
+    void testGetBookingByErrorId() {
+        when(bookingRepository.findDetailedById(anyLong())).thenReturn(Optional.of(booking1));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "WAITING";
-        bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(2L, booking1.getId()));
+    }
 
-        assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+    @Test
+    void testGetAllBookingsByBookerId() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findByState(any(BookingRole.class), anyLong(), any(BookingState.class), any(LocalDateTime.class),
+                isNull(), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of(booking1)));
+        for (BookingState state : BookingState.values()) {
+            List<OutputBookingDto> bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), state.name(), 5, 10, null);
+
+            assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
+            assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
+            assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+
+            verify(bookingRepository, times(1)).findByState(eq(BookingRole.BOOKER), eq(user1.getId()), eq(state),
+                    any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10)));
+        }
+    }
 
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(booking1)));
-        state = "REJECTED";
-        bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state, 5, 10);
+    @Test
+    void testGetAllBookingsForAllItemsByOwnerId() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findByState(any(BookingRole.class), anyLong(), any(BookingState.class), any(LocalDateTime.class),
+                isNull(), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of(booking1)));
+        for (BookingState state : BookingState.values()) {
+            List<OutputBookingDto> bookingOutDtoTest = bookingService.getBookingsForItemsByOwnerId(user1.getId(), state.name(), 5, 10, null);
+
+            assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
+            assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
+            assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+
+            verify(bookingRepository, times(1)).findByState(eq(BookingRole.OWNER), eq(user1.getId()), eq(state),
+                    any(LocalDateTime.class), isNull(), eq(PageRequest.of(0, 10)));
+        }
+    }
+
+    @Test
+    void testGetBookingsByBookerIdAfterCursor() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findByState(any(BookingRole.class), anyLong(), any(BookingState.class), any(LocalDateTime.class),
+                any(BookingCursor.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of(booking1)));
+        List<OutputBookingDto> bookingOutDtoTest = bookingService.getBookingsByBookerId(user1.getId(), "ALL", 0, 10,
+                "2022-04-08T03:02:00,5");
 
         assertEquals(bookingOutDtoTest.get(0).getId(), booking1.getId());
-        assertEquals(bookingOutDtoTest.get(0).getStatus(), booking1.getStatus());
-        assertEquals(bookingOutDtoTest.get(0).getBooker(), UserMapper.returnUserDto(user1));
+
+        verify(bookingRepository, times(1)).findByState(eq(BookingRole.BOOKER), eq(user1.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), argThat(cursor -> cursor.getId() == 5L
+                        && cursor.getStart().equals(LocalDateTime.of(2022, 4, 8, 3, 2))), any(PageRequest.class));
+    }
+
+    @Test
+    void testGetBookingsByBookerIdWrongCursor() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.getBookingsByBookerId(user1.getId(), "ALL", 0, 10, "5"));
     }
 
     @Test
     void testGetBookingsForAllItemsByOwnerIdNotHaveItems() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(List.of());
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(false);
 
-        assertThrows(ValidationException.class, () -> bookingService.getBookingsForItemsByOwnerId(user1.getId(), "APPROVED", 5, 10));
+        assertThrows(ValidationException.class, () -> bookingService.getBookingsForItemsByOwnerId(user1.getId(), "APPROVED", 5, 10, null));
     }
 }
\ No newline at end of file
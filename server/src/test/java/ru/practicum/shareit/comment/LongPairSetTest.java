@@ -0,0 +1,50 @@
+package ru.practicum.shareit.comment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPairSetTest {
+
+    @Test
+    void testAddAndContainsAcrossResizes() {
+        LongPairSet set = new LongPairSet(1_000_000);
+        for (long booker = 1; booker <= 300; booker++) {
+            for (long item = 1; item <= 20; item++) {
+                assertTrue(set.add(booker, item * 1_000_003L));
+            }
+        }
+        assertTrue(set.add(7, 3_000_009L));
+
+        assertEquals(6000, set.size());
+        assertTrue(set.contains(1, 1_000_003L));
+        assertTrue(set.contains(300, 20_000_060L));
+        assertFalse(set.contains(1_000_003L, 1));
+        assertFalse(set.contains(301, 1_000_003L));
+    }
+
+    @Test
+    void testAddStopsAtMaxSize() {
+        LongPairSet set = new LongPairSet(2);
+        assertTrue(set.add(1, 1));
+        assertTrue(set.add(1, 2));
+        assertFalse(set.add(2, 1));
+        assertTrue(set.add(1, 2));
+
+        assertEquals(2, set.size());
+        assertFalse(set.contains(2, 1));
+    }
+
+    @Test
+    void testZeroAndNegativeIdsAreOrdinaryKeys() {
+        LongPairSet set = new LongPairSet(10);
+        assertTrue(set.add(0, 0));
+        assertTrue(set.add(-1, 5));
+
+        assertTrue(set.contains(0, 0));
+        assertTrue(set.contains(-1, 5));
+        assertFalse(set.contains(0, 1));
+    }
+}
\ No newline at end of file
@@ -24,6 +24,9 @@ class ErrorHandlerTest {
     @Mock
     private NotFoundEmailException notFoundEmailException;
 
+    @Mock
+    private BookingConflictException bookingConflictException;
+
     @Mock
     private NotFoundException notFoundException;
 
@@ -57,6 +60,14 @@ class ErrorHandlerTest {
         assertEquals("Email not found error message", response.getError());
     }
 
+    @Test
+    @ResponseStatus(HttpStatus.CONFLICT)
+    void handleBookingConflictException() {
+        when(bookingConflictException.getMessage()).thenReturn("Booking conflict error message");
+        ErrorResponse response = errorHandler.handleBookingConflictException(bookingConflictException);
+        assertEquals("Booking conflict error message", response.getError());
+    }
+
     @Test
     @ResponseStatus(HttpStatus.NOT_FOUND)
     void handleNotFoundException() {
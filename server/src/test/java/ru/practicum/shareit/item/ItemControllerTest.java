@@ -9,7 +9,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -32,6 +36,15 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemAvailabilityService itemAvailabilityService;
+
+    @MockBean
+    private ItemNameSuggester itemNameSuggester;
+
+    @MockBean
+    private ItemImporter itemImporter;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -191,4 +204,55 @@ public class ItemControllerTest {
 
         verify(itemService, times(1)).postComment(1L, 1L, commentDto);
     }
+
+    @Test
+    void testGetComments() throws Exception {
+
+        when(itemService.getComments(anyLong(), anyLong(), anyInt())).thenReturn(List.of(commentDto));
+        mvc.perform(get("/items/{itemId}/comments", 1L)
+                .param("after", "5")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(commentDto))));
+
+        verify(itemService, times(1)).getComments(1L, 5L, 10);
+    }
+
+    @Test
+    void testGetAvailability() throws Exception {
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        AvailabilityDto availabilityDto = AvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new IntervalDto(from, from.plusDays(1))))
+                .free(List.of(new IntervalDto(from.plusDays(1), to)))
+                .build();
+        when(itemAvailabilityService.getAvailability(anyLong(), any(), any())).thenReturn(availabilityDto);
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(availabilityDto)));
+
+        verify(itemAvailabilityService, times(1)).getAvailability(1L, from, to);
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+
+        when(itemNameSuggester.suggest(anyString(), anyInt())).thenReturn(List.of("Дрель", "Дрель ударная"));
+        mvc.perform(get("/items/suggest")
+                .param("prefix", "дре")
+                .param("size", "5")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("Дрель")))
+                .andExpect(jsonPath("$[1]", is("Дрель ударная")));
+
+        verify(itemNameSuggester, times(1)).suggest("дре", 5);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.RecordingStatementInspector;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.RecordingStatementInspector",
+        "shareit.item.import.batch-size=3"})
+@AutoConfigureMockMvc
+class ItemImporterTest {
+
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+
+    private ItemRequest request;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@import.ru").build());
+        User requester = userRepository.save(User.builder().name("requester").email("requester@import.ru").build());
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("нужна дрель")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+        RecordingStatementInspector.reset();
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testImportJsonLinesInBatches() throws Exception {
+        String body = String.join("\n",
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}",
+                "{\"name\": \"Шуруповёрт\", \"description\": \"С битами\", \"available\": true, \"requestId\": " + request.getId() + "}",
+                "{\"name\": \" \", \"description\": \"Без названия\", \"available\": true}",
+                "{\"id\": 1, \"name\": \"Пила\", \"description\": \"Острая\", \"available\": false}",
+                "",
+                "{\"name\": \"Молоток\", \"description\": \"Тяжёлый\", \"available\": true, \"requestId\": 999999}",
+                "{\"name\": \"Лестница\"",
+                "{\"name\": \"Лестница\", \"description\": \"Стремянка\", \"available\": true}");
+        mvc.perform(post("/items/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.getBytes(StandardCharsets.UTF_8))
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(7)))
+                .andExpect(jsonPath("$.imported", is(4)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.errors", hasSize(3)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[1].line", is(7)))
+                .andExpect(jsonPath("$.errors[2].line", is(6)));
+
+        List<Item> items = itemRepository.findByOwnerIdOrderById(owner.getId(), PageRequest.of(0, 10)).getContent();
+        assertEquals(List.of("Дрель", "Шуруповёрт", "Пила", "Лестница"),
+                items.stream().map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of(request.getId()), itemRepository.findByRequestId(request.getId()).stream()
+                .map(item -> item.getRequest().getId()).collect(Collectors.toList()));
+        assertEquals(2, RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains("insert into items")).count());
+    }
+
+    @Test
+    void testImportJsonLinesNotObjects() throws Exception {
+        String body = String.join("\n",
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}",
+                "{\"name\": \"Пила\", \"description\": \"Острая\", \"available\": false}",
+                "{\"name\": \"Молоток\", \"description\": \"Тяжёлый\", \"available\": true}",
+                "null",
+                "[{\"name\": \"Лестница\", \"description\": \"Стремянка\", \"available\": true}]",
+                "\"Лестница\"",
+                "{\"name\": \"Лестница\", \"description\": \"Стремянка\", \"available\": true}");
+        mvc.perform(post("/items/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.getBytes(StandardCharsets.UTF_8))
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(7)))
+                .andExpect(jsonPath("$.imported", is(4)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.errors[0].line", is(4)))
+                .andExpect(jsonPath("$.errors[1].line", is(5)))
+                .andExpect(jsonPath("$.errors[2].line", is(6)));
+
+        assertEquals(4, itemRepository.findByOwnerIdOrderById(owner.getId(), PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        String body = String.join("\n",
+                "Name,Description,Available,RequestId",
+                "\"Дрель, ударная\",\"Мощная \"\"Bosch\"\"\",true,",
+                "Пила,Острая,false," + request.getId(),
+                "Молоток,,true,",
+                "Лестница,Стремянка,maybe,");
+        mvc.perform(post("/items/import")
+                        .contentType("text/csv")
+                        .content(body.getBytes(StandardCharsets.UTF_8))
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(4)))
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.errors[0].line", is(4)))
+                .andExpect(jsonPath("$.errors[1].line", is(5)));
+
+        List<Item> items = itemRepository.findByOwnerIdOrderById(owner.getId(), PageRequest.of(0, 10)).getContent();
+        assertEquals("Дрель, ударная", items.get(0).getName());
+        assertEquals("Мощная \"Bosch\"", items.get(0).getDescription());
+        assertEquals(false, items.get(1).getAvailable());
+    }
+
+    @Test
+    void testImportUnknownUser() throws Exception {
+        mvc.perform(post("/items/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}")
+                        .header(HEADER_USER_ID, owner.getId() + 1000))
+                .andExpect(status().isNotFound());
+    }
+}
\ No newline at end of file
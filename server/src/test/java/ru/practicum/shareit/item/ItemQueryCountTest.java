@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.RecordingStatementInspector;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.RecordingStatementInspector")
+@AutoConfigureMockMvc
+class ItemQueryCountTest {
+
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemBookingPointerService itemBookingPointerService;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@items.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@items.ru").build());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            itemIds.add(item.getId());
+            for (LocalDateTime start : new LocalDateTime[]{now.minusDays(2), now.plusDays(1), now.plusDays(2)}) {
+                bookingRepository.save(Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(Status.APPROVED)
+                        .build());
+            }
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .created(now)
+                    .item(item)
+                    .author(booker)
+                    .build());
+        }
+        itemBookingPointerService.refresh(itemIds, now);
+        RecordingStatementInspector.reset();
+    }
+
+    @AfterEach
+    void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGetItemsByUserIdQueryCountDoesNotGrowWithPage() throws Exception {
+        for (int size : new int[]{10, 20}) {
+            RecordingStatementInspector.reset();
+            mvc.perform(get("/items")
+                            .param("size", String.valueOf(size))
+                            .header(HEADER_USER_ID, owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(size)))
+                    .andExpect(jsonPath("$[0].lastBooking.id").isNumber())
+                    .andExpect(jsonPath("$[0].nextBooking.id").isNumber())
+                    .andExpect(jsonPath("$[0].comments[0].authorName").value("booker"));
+
+            assertEquals(4, RecordingStatementInspector.statements().size());
+        }
+    }
+
+    @Test
+    void testGetItemsByUserIdEmbedsNewestCommentsWithTotalCount() throws Exception {
+        Item item = itemRepository.findAll().get(0);
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 25; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("review " + i)
+                    .created(created.plusMinutes(i / 2))
+                    .item(item)
+                    .author(booker)
+                    .build());
+        }
+        RecordingStatementInspector.reset();
+        mvc.perform(get("/items")
+                        .param("size", "20")
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(item.getId()))
+                .andExpect(jsonPath("$[0].comments", hasSize(10)))
+                .andExpect(jsonPath("$[0].comments[0].text").value("review 24"))
+                .andExpect(jsonPath("$[0].comments[0].authorName").value("booker"))
+                .andExpect(jsonPath("$[0].commentCount").value(26))
+                .andExpect(jsonPath("$[1].comments", hasSize(1)))
+                .andExpect(jsonPath("$[1].commentCount").value(1));
+
+        assertEquals(5, RecordingStatementInspector.statements().size());
+    }
+
+    @Test
+    void testGetItemByIdEmbedsNewestCommentsAndPagesTheRest() throws Exception {
+        Item item = itemRepository.findAll().get(0);
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 25; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("review " + i)
+                    .created(created.plusMinutes(i / 2))
+                    .item(item)
+                    .author(booker)
+                    .build());
+        }
+        RecordingStatementInspector.reset();
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HEADER_USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(10)))
+                .andExpect(jsonPath("$.comments[0].text").value("review 24"))
+                .andExpect(jsonPath("$.commentCount").value(26));
+
+        assertEquals(4, RecordingStatementInspector.statements().size());
+
+        List<Integer> ids = new ArrayList<>();
+        Integer after = null;
+        do {
+            RecordingStatementInspector.reset();
+            MockHttpServletRequestBuilder request = get("/items/{itemId}/comments", item.getId()).param("size", "7");
+            if (after != null) {
+                request.param("after", after.toString());
+            }
+            String content = mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Integer> page = JsonPath.read(content, "$[*].id");
+            assertEquals(2, RecordingStatementInspector.statements().size());
+            ids.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (after != null);
+
+        assertEquals(26, ids.size());
+        assertEquals(26, ids.stream().distinct().count());
+    }
+
+    @Test
+    void testPostCommentQueryCount() throws Exception {
+        Item item = itemRepository.findAll().get(0);
+        for (int expected : new int[]{3, 2}) {
+            RecordingStatementInspector.reset();
+            mvc.perform(post("/items/{itemId}/comment", item.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"text\": \"great\"}")
+                            .header(HEADER_USER_ID, booker.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.authorName").value("booker"));
+
+            assertEquals(expected, RecordingStatementInspector.statements().size());
+        }
+    }
+}
\ No newline at end of file
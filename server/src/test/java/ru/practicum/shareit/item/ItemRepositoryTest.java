@@ -2,12 +2,19 @@ package ru.practicum.shareit.item;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @DataJpaTest
 class ItemRepositoryTest {
 
@@ -47,7 +54,19 @@ class ItemRepositoryTest {
 
     @AfterEach
     void afterEach() {
-        userRepository.deleteAll();
         itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testFindOwnerIdById() {
+        assertEquals(Optional.of(user.getId()), itemRepository.findOwnerIdById(item2.getId()));
+        assertTrue(itemRepository.findOwnerIdById(item2.getId() + 1000).isEmpty());
+    }
+
+    @Test
+    void testExistsByOwnerId() {
+        assertTrue(itemRepository.existsByOwnerId(user.getId()));
+        assertFalse(itemRepository.existsByOwnerId(user.getId() + 1000));
     }
 }
\ No newline at end of file
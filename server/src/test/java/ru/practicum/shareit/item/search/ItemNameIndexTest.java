@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemNameIndexTest {
+
+    ItemNameIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new ItemNameIndex(1_000_000);
+        index.put(1L, 0, "Дрель  ударная", true);
+        index.put(2L, 0, "Дрель", true);
+        index.put(3L, 0, "дрель", true);
+        index.put(4L, 0, "Дрезина", false);
+        index.put(5L, 0, "Пила", true);
+    }
+
+    @Test
+    void testSuggestReturnsSortedDistinctAvailableNames() {
+        assertEquals(List.of("Дрель", "Дрель ударная"), index.suggest(" ДРЕ", 10));
+        assertEquals(List.of("Дрель"), index.suggest("дре", 1));
+        assertEquals(List.of("Дрель ударная"), index.suggest("дрель у", 10));
+        assertTrue(index.suggest("", 10).isEmpty());
+        assertTrue(index.suggest("молоток", 10).isEmpty());
+    }
+
+    @Test
+    void testPutFollowsNameAndAvailabilityChanges() {
+        index.put(4L, 1, "Дрезина", true);
+        index.put(2L, 1, "Дрель", false);
+        index.put(5L, 1, "Дрель-шуруповёрт", true);
+
+        assertEquals(List.of("Дрезина", "Дрель", "Дрель ударная", "Дрель-шуруповёрт"), index.suggest("дре", 10));
+        assertTrue(index.suggest("пи", 10).isEmpty());
+
+        index.put(3L, 1, "дрель", false);
+        assertEquals(List.of("Дрезина", "Дрель ударная", "Дрель-шуруповёрт"), index.suggest("дре", 10));
+    }
+
+    @Test
+    void testPutIgnoresOutdatedVersions() {
+        index.put(5L, 2, "Пила дисковая", true);
+        index.put(5L, 1, "Пила ручная", true);
+        index.put(2L, 2, "Дрель", false);
+        index.put(2L, 1, "Дрель", true);
+        index.put(2L, 2, "Дрель", true);
+
+        assertEquals(List.of("Пила дисковая"), index.suggest("пи", 10));
+        assertEquals(List.of("Дрель", "Дрель ударная"), index.suggest("дре", 10));
+
+        index.put(3L, 1, "дрель", false);
+        assertEquals(List.of("Дрель ударная"), index.suggest("дре", 10));
+    }
+
+    @Test
+    void testPutRejectsNamesOverMemoryCeiling() {
+        index = new ItemNameIndex(300);
+
+        assertTrue(index.put(1L, 0, "Дрель", true));
+        assertTrue(index.put(2L, 0, "Дрель", true));
+        assertFalse(index.put(3L, 0, "Пила", true));
+        assertEquals(List.of("Дрель"), index.suggest("д", 10));
+
+        index.put(1L, 1, "Дрель", false);
+        index.put(2L, 1, "Дрель", false);
+        assertEquals(0, index.bytes());
+        assertTrue(index.put(3L, 1, "Пила", true));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemNgramIndexTest {
+
+    ItemNgramIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new ItemNgramIndex();
+        index.put(1L, "Аккумуляторная дрель", "Дрель с двумя батареями", true);
+        index.put(2L, "Пила", "Пила для работы с дрелью", true);
+        index.put(3L, "Дрель", "Сломанная дрель", false);
+        index.put(4L, "Отвёртка", "Крестовая отвёртка", true);
+    }
+
+    @Test
+    void testSearchMatchesSubstringsOfAvailableItems() {
+        assertEquals(List.of(1L, 2L), index.search("дРеЛ", 0, 10));
+        assertEquals(List.of(1L), index.search("ляторная др", 0, 10));
+        assertEquals(List.of(4L), index.search("ов", 0, 10));
+        assertTrue(index.search("дрель пила", 0, 10).isEmpty());
+        assertTrue(index.search("молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchPagesInIdOrder() {
+        index.put(5L, "Дрель ударная", "Мощная", true);
+
+        assertEquals(List.of(1L, 2L), index.search("дрел", 0, 2));
+        assertEquals(List.of(5L), index.search("дрел", 2, 2));
+    }
+
+    @Test
+    void testPutReplacesIndexedText() {
+        index.put(2L, "Пила", "Ножовка", true);
+        index.put(3L, "Дрель", "Починенная дрель", true);
+
+        assertEquals(List.of(1L, 3L), index.search("дрел", 0, 10));
+        assertEquals(List.of(2L), index.search("ножов", 0, 10));
+        assertEquals(4, index.size());
+    }
+}
\ No newline at end of file
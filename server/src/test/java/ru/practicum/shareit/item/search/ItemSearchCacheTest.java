@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemCacheConfig;
+import ru.practicum.shareit.item.ItemEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void beforeEach() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ItemCacheConfig.ITEM_SEARCH, Caffeine.newBuilder().recordStats().build());
+        registry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(cacheManager, registry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testNormalizedKeysShareEntry() {
+        cache.get("Drill", PageRequest.of(0, 10), this::load);
+        cache.get("  dRILL ", PageRequest.of(0, 10), this::load);
+        List<ItemDto> result = cache.get("drill", PageRequest.of(0, 10), this::load);
+        cache.get("drill", PageRequest.of(1, 10), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals("drill", result.get(0).getName());
+        assertEquals(0.5, registry.get("shareit.items.search.hit-ratio").gauge().value());
+    }
+
+    @Test
+    void testConcurrentMissesCoalesced() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<ItemDto>> results = new CopyOnWriteArrayList<>();
+        Thread first = new Thread(() -> results.add(cache.get("saw", PageRequest.of(0, 10), text -> {
+            loading.countDown();
+            await(release);
+            return load(text);
+        })));
+        Thread second = new Thread(() -> results.add(cache.get("SAW", PageRequest.of(0, 10), this::load)));
+        first.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        second.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (second.getState() != Thread.State.BLOCKED && second.getState() != Thread.State.WAITING
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertEquals(2, results.size());
+        assertEquals(results.get(0), results.get(1));
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("shareit.items.search.coalesced").counter().count());
+    }
+
+    @Test
+    void testInvalidatedByMatchingItem() {
+        cache.get("drill", PageRequest.of(0, 10), this::load);
+        cache.get("hammer", PageRequest.of(0, 10), this::load);
+
+        cache.onItemEvent(new ItemEvent(100L, "Cordless DRILL", "new", true, 1L));
+        cache.get("drill", PageRequest.of(0, 10), this::load);
+        cache.get("hammer", PageRequest.of(0, 10), this::load);
+        assertEquals(3, loads.get());
+
+        cache.onItemEvent(new ItemEvent(2L, "bucket", "plastic", false, 1L));
+        cache.get("hammer", PageRequest.of(0, 10), this::load);
+        cache.get("drill", PageRequest.of(0, 10), this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testEvictionDropsEveryPageOfQuery() {
+        List<ItemDto> first = cache.get("drill", PageRequest.of(0, 1), this::load);
+        cache.get("drill", PageRequest.of(1, 1), this::load);
+        cache.get("drill", PageRequest.of(0, 5), this::load);
+        cache.get("hammer", PageRequest.of(0, 1), this::load);
+
+        cache.onItemEvent(new ItemEvent(first.get(0).getId(), "bucket", "plastic", true, 1L));
+        cache.get("drill", PageRequest.of(1, 1), this::load);
+        cache.get("drill", PageRequest.of(0, 5), this::load);
+        cache.get("hammer", PageRequest.of(0, 1), this::load);
+        assertEquals(6, loads.get());
+    }
+
+    private List<ItemDto> load(String text) {
+        int id = loads.incrementAndGet();
+        return List.of(ItemDto.builder().id((long) id).name(text).build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
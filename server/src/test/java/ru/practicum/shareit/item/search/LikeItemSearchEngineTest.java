@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(LikeItemSearchEngine.class)
+class LikeItemSearchEngineTest {
+
+    @Autowired
+    ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("vasiliy")
+                .email("vasiliy@yandex.ru")
+                .build());
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixesOfAvailableItems() {
+        Item drill = save("Аккумуляторная дрель", "Дрель с двумя батареями", true);
+        Item saw = save("Пила", "Пила для работы с дрелью", true);
+        save("Дрель", "Сломанная дрель", false);
+        save("Молоток", "Обычный молоток", true);
+
+        assertEquals(List.of(drill.getId(), saw.getId()), ids("дРелЬ", 0, 10));
+        assertEquals(List.of(drill.getId()), ids("аккУМУлятор дрель", 0, 10));
+        assertTrue(ids("рель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirstWithStablePages() {
+        Item inDescription = save("Пила", "Не отвёртка", true);
+        Item inName = save("Отвёртка", "Крестовая", true);
+        Item inBoth = save("Отвёртка плоская", "Отвёртка", true);
+
+        assertEquals(List.of(inName.getId(), inBoth.getId(), inDescription.getId()), ids("отвёртка", 0, 10));
+        assertEquals(List.of(inName.getId(), inBoth.getId()), ids("отвёртка", 0, 2));
+        assertEquals(List.of(inDescription.getId()), ids("отвёртка", 1, 2));
+    }
+
+    @Test
+    void testSearchWithoutTokens() {
+        save("Пила", "Пила", true);
+
+        assertTrue(ids("  ,.! ", 0, 10).isEmpty());
+    }
+
+    private Item save(String name, String description, boolean available) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build());
+    }
+
+    private List<Long> ids(String text, int page, int size) {
+        return itemSearchEngine.search(text, PageRequest.of(page, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
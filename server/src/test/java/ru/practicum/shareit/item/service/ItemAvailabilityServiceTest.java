@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.AvailabilityDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "shareit.availability.max-intervals=10")
+public class ItemAvailabilityServiceTest {
+
+    @Autowired
+    private ItemAvailabilityService itemAvailabilityService;
+
+    @MockBean
+    private ItemRepository itemRepository;
+
+    @MockBean
+    private BookingRepository bookingRepository;
+
+    private LocalDateTime from;
+
+    @BeforeEach
+    void beforeEach() {
+        from = LocalDateTime.now().plusDays(1).withNano(0);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void testGetAvailabilityLoadsCalendarOnce() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(1L), eq(Status.BLOCKING), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, 1L, from.plusHours(2), from.plusHours(4))));
+
+        AvailabilityDto availability = itemAvailabilityService.getAvailability(1L, from, from.plusHours(6));
+        itemAvailabilityService.getAvailability(1L, from, from.plusHours(6));
+
+        assertEquals(List.of(new IntervalDto(from.plusHours(2), from.plusHours(4))), availability.getBusy());
+        assertEquals(List.of(new IntervalDto(from, from.plusHours(2)), new IntervalDto(from.plusHours(4), from.plusHours(6))),
+                availability.getFree());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndAfter(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    void testGetAvailabilityClipsOverlappingIntervals() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(2L), anyCollection(), any()))
+                .thenReturn(List.of(booking(2L, 2L, from.minusHours(1), from.plusHours(1))));
+
+        AvailabilityDto availability = itemAvailabilityService.getAvailability(2L, from, from.plusHours(3));
+
+        assertEquals(List.of(new IntervalDto(from, from.plusHours(1))), availability.getBusy());
+        assertEquals(List.of(new IntervalDto(from.plusHours(1), from.plusHours(3))), availability.getFree());
+    }
+
+    @Test
+    void testBookingEventsUpdateLoadedCalendar() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(3L), anyCollection(), any()))
+                .thenReturn(Collections.emptyList());
+        itemAvailabilityService.getAvailability(3L, from, from.plusHours(6));
+
+        itemAvailabilityService.onBookingEvent(new BookingEvent(3L, 3L, from.plusHours(1), from.plusHours(2), Status.WAITING));
+        assertEquals(1, itemAvailabilityService.getAvailability(3L, from, from.plusHours(6)).getBusy().size());
+
+        itemAvailabilityService.onBookingEvent(new BookingEvent(3L, 3L, from.plusHours(1), from.plusHours(2), Status.REJECTED));
+        AvailabilityDto availability = itemAvailabilityService.getAvailability(3L, from, from.plusHours(6));
+
+        assertTrue(availability.getBusy().isEmpty());
+        assertEquals(List.of(new IntervalDto(from, from.plusHours(6))), availability.getFree());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndAfter(eq(3L), anyCollection(), any());
+    }
+
+    @Test
+    void testBookingEventIgnoredForUnloadedItem() {
+        itemAvailabilityService.onBookingEvent(new BookingEvent(4L, 4L, from, from.plusHours(1), Status.APPROVED));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetAvailabilityKeepsCalendarsWithinIntervalBudget() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookings.add(booking(10L + i, 5L, from.plusHours(2 * i), from.plusHours(2 * i + 1)));
+        }
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(5L), anyCollection(), any())).thenReturn(bookings);
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(6L), anyCollection(), any()))
+                .thenReturn(List.of(booking(7L, 6L, from, from.plusHours(1))));
+
+        assertEquals(10, itemAvailabilityService.getAvailability(5L, from, from.plusDays(1)).getBusy().size());
+        itemAvailabilityService.getAvailability(6L, from, from.plusHours(6));
+        assertEquals(10, itemAvailabilityService.getAvailability(5L, from, from.plusDays(1)).getBusy().size());
+        itemAvailabilityService.getAvailability(6L, from, from.plusHours(6));
+
+        verify(bookingRepository, times(2)).findByItemIdAndStatusInAndEndAfter(eq(5L), anyCollection(), any());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndAfter(eq(6L), anyCollection(), any());
+    }
+
+    @Test
+    void testGetAvailabilityCoalescesConcurrentLoads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(8L), anyCollection(), any())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(booking(8L, 8L, from, from.plusHours(1)));
+        });
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(9L), anyCollection(), any()))
+                .thenReturn(Collections.emptyList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<AvailabilityDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> itemAvailabilityService.getAvailability(8L, from, from.plusHours(6))));
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertTrue(itemAvailabilityService.getAvailability(9L, from, from.plusHours(6)).getBusy().isEmpty());
+        itemAvailabilityService.onBookingEvent(new BookingEvent(20L, 8L, from.plusHours(2), from.plusHours(3), Status.APPROVED));
+        release.countDown();
+        for (Future<AvailabilityDto> future : futures) {
+            assertFalse(future.get(5, TimeUnit.SECONDS).getBusy().isEmpty());
+        }
+        executor.shutdown();
+
+        assertEquals(2, itemAvailabilityService.getAvailability(8L, from, from.plusHours(6)).getBusy().size());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndAfter(eq(8L), anyCollection(), any());
+    }
+
+    @Test
+    void testGetAvailabilityWrongItem() {
+        when(itemRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemAvailabilityService.getAvailability(99L, null, null));
+    }
+
+    @Test
+    void testGetAvailabilityWrongPeriod() {
+        assertThrows(ValidationException.class, () -> itemAvailabilityService.getAvailability(1L, from, from.minusHours(1)));
+    }
+
+    private Booking booking(long bookingId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(end)
+                .item(Item.builder().id(itemId).build())
+                .status(Status.APPROVED)
+                .build();
+    }
+}
\ No newline at end of file
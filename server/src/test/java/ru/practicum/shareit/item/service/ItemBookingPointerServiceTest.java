@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class ItemBookingPointerServiceTest {
+
+    @Autowired
+    private ItemBookingPointerService itemBookingPointerService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        now = LocalDateTime.now().withNano(0);
+        owner = userRepository.save(User.builder().name("owner").email("owner@pointer.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@pointer.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("cordless drill")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testApproveSetsNextBooking() {
+        Booking booking = save(now.plusDays(1), Status.WAITING);
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        Item updated = itemRepository.findById(item.getId()).get();
+        assertNull(updated.getLastBooking());
+        assertEquals(booking.getId(), updated.getNextBooking().getBookingId());
+        assertEquals(booker.getId(), updated.getNextBooking().getBookerId());
+        assertEquals(booking.getStart(), updated.getNextBooking().getStart());
+    }
+
+    @Test
+    void testRollForward() {
+        Booking past = save(now.minusDays(2), Status.APPROVED);
+        Booking started = save(now.plusHours(1), Status.APPROVED);
+        Booking future = save(now.plusDays(3), Status.APPROVED);
+        save(now.plusDays(5), Status.REJECTED);
+        itemBookingPointerService.refresh(List.of(item.getId()), now);
+
+        Item before = itemRepository.findById(item.getId()).get();
+        assertEquals(past.getId(), before.getLastBooking().getBookingId());
+        assertEquals(started.getId(), before.getNextBooking().getBookingId());
+        assertEquals(List.of(), itemBookingPointerService.rollForward(now, 10));
+
+        assertEquals(List.of(item.getId()), itemBookingPointerService.rollForward(now.plusHours(2), 10));
+
+        Item after = itemRepository.findById(item.getId()).get();
+        assertEquals(started.getId(), after.getLastBooking().getBookingId());
+        assertEquals(future.getId(), after.getNextBooking().getBookingId());
+    }
+
+    @RepeatedTest(10)
+    void testConcurrentRenameAndApproveBothSurvive() throws Exception {
+        Booking booking = save(now.plusDays(1), Status.WAITING);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?> approve = executor.submit(() -> {
+            start.await();
+            return bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        });
+        Future<?> rename = executor.submit(() -> {
+            start.await();
+            return itemService.update(ItemDto.builder().name("hammer").available(false).build(), item.getId(), owner.getId());
+        });
+        start.countDown();
+        approve.get(10, TimeUnit.SECONDS);
+        rename.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Item updated = itemRepository.findById(item.getId()).get();
+        assertEquals("hammer", updated.getName());
+        assertEquals("cordless drill", updated.getDescription());
+        assertFalse(updated.getAvailable());
+        assertEquals(booking.getId(), updated.getNextBooking().getBookingId());
+    }
+
+    private Booking save(LocalDateTime start, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
\ No newline at end of file
@@ -6,21 +6,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentEligibility;
+import ru.practicum.shareit.comment.CommentEvent;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.ItemComment;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.ItemCacheEvictor;
+import ru.practicum.shareit.item.ItemEvent;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -31,6 +42,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,6 +58,12 @@ public class ItemServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ItemCacheEvictor itemCacheEvictor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @MockBean
     private ItemRepository itemRepository;
 
@@ -55,12 +73,18 @@ public class ItemServiceTest {
     @MockBean
     private BookingRepository bookingRepository;
 
+    @MockBean
+    private CommentEligibility commentEligibility;
+
     @MockBean
     private UserRepository userRepository;
 
     @MockBean
     private ItemRequestRepository itemRequestRepository;
 
+    @MockBean
+    private ItemSearchEngine itemSearchEngine;
+
     private User user;
     private Item item;
     private ItemDto itemDto;
@@ -72,6 +96,8 @@ public class ItemServiceTest {
 
     @BeforeEach
     void beforeEach() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
         user = User.builder()
                 .id(1L)
                 .name("andrey")
@@ -91,6 +117,7 @@ public class ItemServiceTest {
                 .available(true)
                 .owner(user)
                 .request(itemRequest)
+                .version(0L)
                 .build();
 
         itemDto = ItemMapper.returnItemDto(item);
@@ -129,15 +156,36 @@ public class ItemServiceTest {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(List.of(item));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(itemRepository.findOwnerIdById(anyLong())).thenReturn(Optional.of(user.getId()));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(item);
         ItemDto itemDtoTest = itemService.update(itemDto, user.getId(),  item.getId());
 
         assertEquals(itemDtoTest.getId(), itemDto.getId());
         assertEquals(itemDtoTest.getDescription(), itemDto.getDescription());
 
-        verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemRepository, times(1)).saveAndFlush(any(Item.class));
+    }
+
+    @Test
+    void testUpdateItemOwnershipCached() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findOwnerIdById(anyLong())).thenReturn(Optional.of(user.getId()));
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        itemService.update(itemDto, item.getId(), user.getId());
+        itemService.update(itemDto, item.getId(), user.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.update(itemDto, item.getId(), user.getId() + 1));
+        verify(itemRepository, times(1)).findOwnerIdById(item.getId());
+    }
+
+    @Test
+    void testUpdateItemNotFound() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findOwnerIdById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.update(itemDto, item.getId(), user.getId()));
+        verify(itemRepository, never()).findLockedById(anyLong());
     }
 
     @Test
@@ -145,50 +193,152 @@ public class ItemServiceTest {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(Collections.emptyList());
+        when(itemRepository.findLockedById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findOwnerIdById(anyLong())).thenReturn(Optional.of(user.getId() + 1));
 
         assertThrows(NotFoundException.class, () -> itemService.update(itemDto, user.getId(),  item.getId()));
     }
 
     @Test
     void testGetItemById() {
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(item.getId(), Status.APPROVED, LocalDateTime.now())).thenReturn(Optional.of(booking1));
-        when(bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(item.getId(), Status.APPROVED, LocalDateTime.now())).thenReturn(Optional.of(booking2));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(List.of(comment));
+        booking2.setStart(LocalDateTime.now().plusDays(1));
+        item.setLastBooking(BookingMapper.toBookingPointer(booking1));
+        item.setNextBooking(BookingMapper.toBookingPointer(booking2));
+        when(commentRepository.findNewestByItemId(anyLong(), any(Pageable.class))).thenReturn(List.of(comment));
         ItemDto itemDtoTest = itemService.getItemById(item.getId(), user.getId());
 
         assertEquals(itemDtoTest.getId(), item.getId());
         assertEquals(itemDtoTest.getDescription(), item.getDescription());
         assertEquals(itemDtoTest.getAvailable(), item.getAvailable());
         assertEquals(itemDtoTest.getRequestId(), item.getRequest().getId());
+        assertEquals(booking1.getId(), itemDtoTest.getLastBooking().getId());
+        assertEquals(booking2.getId(), itemDtoTest.getNextBooking().getId());
+        assertEquals(List.of(commentDto), itemDtoTest.getComments());
+        assertEquals(1L, itemDtoTest.getCommentCount());
 
         verify(itemRepository, times(1)).findById(anyLong());
+        verify(commentRepository, never()).countByItemId(anyLong());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void testGetItemByIdStartedNextBooking() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        booking2.setStart(LocalDateTime.now().minusMinutes(1));
+        item.setLastBooking(BookingMapper.toBookingPointer(booking1));
+        item.setNextBooking(BookingMapper.toBookingPointer(booking2));
+        when(bookingRepository.findLastAndNextByItemIdIn(anyCollection(), eq(Status.APPROVED.name()), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking2));
+        ItemDto itemDtoTest = itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(booking2.getId(), itemDtoTest.getLastBooking().getId());
+        assertNull(itemDtoTest.getNextBooking());
+    }
+
+    @Test
+    void testGetItemByIdCachedUntilInvalidated() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(commentRepository.findNewestByItemId(anyLong(), any(Pageable.class))).thenReturn(List.of(comment));
+        booking2.setStart(LocalDateTime.now().plusDays(1));
+        item.setNextBooking(BookingMapper.toBookingPointer(booking2));
+
+        itemService.getItemById(item.getId(), user.getId());
+        ItemDto itemDtoTest = itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(booking2.getId(), itemDtoTest.getNextBooking().getId());
+        assertEquals(List.of(commentDto), itemDtoTest.getComments());
+        verify(itemRepository, times(1)).findById(anyLong());
+        verify(commentRepository, times(1)).findNewestByItemId(anyLong(), any(Pageable.class));
+
+        itemCacheEvictor.onCommentEvent(new CommentEvent(comment.getId(), item.getId()));
+        itemService.getItemById(item.getId(), user.getId());
+        itemCacheEvictor.onBookingEvent(BookingEvent.of(booking2));
+        itemService.getItemById(item.getId(), user.getId());
+
+        verify(itemRepository, times(3)).findById(anyLong());
+        verify(commentRepository, times(3)).findNewestByItemId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetItemByIdDoesNotCacheViewInvalidatedWhileLoading() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Item loaded = Item.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .owner(item.getOwner())
+                    .build();
+            item.setName("sledgehammer");
+            itemCacheEvictor.onItemEvent(ItemEvent.of(item));
+            return Optional.of(loaded);
+        }).thenAnswer(invocation -> Optional.of(item));
+
+        ItemDto stale = itemService.getItemById(item.getId(), user.getId());
+        ItemDto fresh = itemService.getItemById(item.getId(), user.getId());
+        ItemDto cached = itemService.getItemById(item.getId(), user.getId());
+
+        assertNotEquals(item.getName(), stale.getName());
+        assertEquals(item.getName(), fresh.getName());
+        assertEquals(item.getName(), cached.getName());
+        verify(itemRepository, times(2)).findById(anyLong());
+    }
+
+    @Test
+    void testGetItemByIdNotOwnerSkipsBookings() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        item.setLastBooking(BookingMapper.toBookingPointer(booking1));
+        ItemDto itemDtoTest = itemService.getItemById(item.getId(), 2L);
+
+        assertNull(itemDtoTest.getLastBooking());
+        assertNull(itemDtoTest.getNextBooking());
+    }
+
+    @Test
+    void testGetItemByIdNotFound() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(item.getId(), user.getId()));
     }
 
     @Test
     void testGetItemsUser() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findByOwnerIdOrderById(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(item)));
-        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(item.getId(), Status.APPROVED, LocalDateTime.now())).thenReturn(Optional.of(booking1));
-        when(bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(item.getId(), Status.APPROVED, LocalDateTime.now())).thenReturn(Optional.of(booking2));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(List.of(comment));
+        booking2.setStart(LocalDateTime.now().plusDays(1));
+        comment.setItem(item);
+        item.setLastBooking(BookingMapper.toBookingPointer(booking1));
+        item.setNextBooking(BookingMapper.toBookingPointer(booking2));
+        ItemComment itemComment = new SpelAwareProxyProjectionFactory().createProjection(ItemComment.class, Map.of(
+                "id", comment.getId(), "itemId", item.getId(), "text", comment.getText(),
+                "authorName", comment.getAuthor().getName(), "created", comment.getCreated()));
+        when(commentRepository.findNewestByItemIdIn(anyCollection(), anyInt())).thenReturn(List.of(itemComment));
         ItemDto itemDtoTest = itemService.getItemsByUserId(user.getId(), 5, 10).get(0);
 
         assertEquals(itemDtoTest.getId(), item.getId());
         assertEquals(itemDtoTest.getDescription(), item.getDescription());
         assertEquals(itemDtoTest.getAvailable(), item.getAvailable());
         assertEquals(itemDtoTest.getRequestId(), item.getRequest().getId());
+        assertEquals(booking1.getId(), itemDtoTest.getLastBooking().getId());
+        assertEquals(booking2.getId(), itemDtoTest.getNextBooking().getId());
+        assertEquals(List.of(commentDto), itemDtoTest.getComments());
+
+        assertEquals(1L, itemDtoTest.getCommentCount());
 
         verify(itemRepository, times(1)).findByOwnerIdOrderById(anyLong(), any(PageRequest.class));
+        verify(commentRepository, never()).countByItemIdIn(anyCollection());
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void testSearchItem() {
-        when(itemRepository.search(anyString(), any(PageRequest.class))).thenReturn(new ArrayList<>(List.of(item)));
+        when(itemSearchEngine.search(anyString(), any(PageRequest.class))).thenReturn(new ArrayList<>(List.of(item)));
         ItemDto itemDtoTest = itemService.getItemsByKeyword("text", 5, 10).get(0);
 
         assertEquals(itemDtoTest.getId(), item.getId());
@@ -196,7 +346,17 @@ public class ItemServiceTest {
         assertEquals(itemDtoTest.getAvailable(), item.getAvailable());
         assertEquals(itemDtoTest.getRequestId(), item.getRequest().getId());
 
-        verify(itemRepository, times(1)).search(anyString(), any(PageRequest.class));
+        verify(itemSearchEngine, times(1)).search(anyString(), any(PageRequest.class));
+    }
+
+    @Test
+    void testSearchItemCached() {
+        when(itemSearchEngine.search(anyString(), any(PageRequest.class))).thenReturn(new ArrayList<>(List.of(item)));
+        itemService.getItemsByKeyword("Hammer", 0, 10);
+        List<ItemDto> itemDtoTest = itemService.getItemsByKeyword(" hammer ", 0, 10);
+
+        assertEquals(item.getId(), itemDtoTest.get(0).getId());
+        verify(itemSearchEngine, times(1)).search(eq("hammer"), any(PageRequest.class));
     }
 
     @Test
@@ -205,16 +365,32 @@ public class ItemServiceTest {
 
         assertTrue(itemDtoTest.isEmpty());
 
-        verify(itemRepository, times(0)).search(anyString(), any(PageRequest.class));
+        verify(itemSearchEngine, times(0)).search(anyString(), any(PageRequest.class));
+    }
+
+    @Test
+    void testGetComments() {
+        when(commentRepository.findByIdAndItemId(comment.getId(), item.getId())).thenReturn(Optional.of(comment));
+        when(commentRepository.findByItemIdBefore(item.getId(), comment.getCreated(), comment.getId(), PageRequest.of(0, 5)))
+                .thenReturn(List.of(comment));
+        List<CommentDto> comments = itemService.getComments(item.getId(), comment.getId(), 5);
+
+        assertEquals(List.of(commentDto), comments);
+        verify(commentRepository, never()).findNewestByItemId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetCommentsUnknownCursor() {
+        when(commentRepository.findByIdAndItemId(anyLong(), anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(item.getId(), 100L, 5));
     }
 
     @Test
     void testPostComment() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class))).thenReturn(Optional.of(booking1));
+        when(commentEligibility.isEligible(eq(user.getId()), eq(item.getId()), any(LocalDateTime.class))).thenReturn(true);
+        when(itemRepository.getReferenceById(anyLong())).thenReturn(item);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
         CommentDto commentDtoTest = itemService.postComment(user.getId(), item.getId(), commentDto);
 
@@ -223,17 +399,26 @@ public class ItemServiceTest {
         assertEquals(commentDtoTest.getAuthorName(), comment.getAuthor().getName());
 
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(itemRepository, never()).findById(anyLong());
     }
 
     @Test
     void testAddCommentUserNotBookingItem() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(commentEligibility.isEligible(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(false);
 
         assertThrows(ValidationException.class, () -> itemService.postComment(user.getId(), item.getId(), commentDto));
+        verify(commentRepository, never()).save(any(Comment.class));
+    }
+
+    @Test
+    void testAddCommentItemNotFound() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
+        when(commentEligibility.isEligible(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.postComment(user.getId(), item.getId(), commentDto));
     }
 
     @Test
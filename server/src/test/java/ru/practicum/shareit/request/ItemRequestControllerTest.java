@@ -28,6 +28,9 @@ public class ItemRequestControllerTest {
     @MockBean
     private ItemRequestService itemRequestService;
 
+    @MockBean
+    private ItemRequestEventBus itemRequestEventBus;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -71,7 +74,7 @@ public class ItemRequestControllerTest {
 
     @Test
     void testGetRequests() throws Exception {
-        when(itemRequestService.getAllRequestsByUserId(anyLong())).thenReturn(List.of(itemRequestDto1, itemRequestDto2));
+        when(itemRequestService.getAllRequestsByUserId(anyLong(), anyInt(), anyInt())).thenReturn(List.of(itemRequestDto1, itemRequestDto2));
         mvc.perform(get("/requests")
                 .characterEncoding(StandardCharsets.UTF_8)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -80,12 +83,12 @@ public class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemRequestDto1, itemRequestDto2))));
 
-        verify(itemRequestService, times(1)).getAllRequestsByUserId(1L);
+        verify(itemRequestService, times(1)).getAllRequestsByUserId(1L, 0, 10);
     }
 
     @Test
     void testGetAllRequests() throws Exception {
-        when(itemRequestService.getAllRequests(anyLong(), anyInt(), anyInt())).thenReturn(List.of(itemRequestDto1, itemRequestDto2));
+        when(itemRequestService.getAllRequests(anyLong(), any(), anyInt(), anyInt())).thenReturn(List.of(itemRequestDto1, itemRequestDto2));
         mvc.perform(get("/requests/all")
                 .param("from", String.valueOf(0))
                 .param("size", String.valueOf(10))
@@ -96,7 +99,7 @@ public class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemRequestDto1, itemRequestDto2))));
 
-        verify(itemRequestService, times(1)).getAllRequests(1L, 0, 10);
+        verify(itemRequestService, times(1)).getAllRequests(1L, null, 0, 10);
     }
 
     @Test
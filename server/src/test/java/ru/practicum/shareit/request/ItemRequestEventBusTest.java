@@ -0,0 +1,263 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"shareit.request.events.send-timeout=1000", "server.tomcat.connection-timeout=3s"})
+class ItemRequestEventBusTest {
+
+    private static final int SUBSCRIBERS = 2000;
+
+    private static final int STALLED = 20;
+
+    private static final String PAYLOAD = "x".repeat(1024 * 1024);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestEventBus itemRequestEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User requester;
+
+    private User owner;
+
+    private ItemRequest request;
+
+    private final List<Socket> sockets = new ArrayList<>();
+
+    private final List<Reader> readers = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        requester = userRepository.save(User.builder().name("requester").email("requester@events.ru").build());
+        owner = userRepository.save(User.builder().name("owner").email("owner@events.ru").build());
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        itemRepository.deleteAllInBatch();
+        itemRequestRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testIdleSubscribersHoldNoThreadsAndAllReceiveAnswer() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int open = itemRequestEventBus.size();
+        subscribe(SUBSCRIBERS / 10);
+        int baseline = threads.getThreadCount();
+        subscribe(SUBSCRIBERS - SUBSCRIBERS / 10);
+
+        assertEquals(open + SUBSCRIBERS, itemRequestEventBus.size());
+        assertTrue(threads.getThreadCount() - baseline < 20, "threads grew from " + baseline + " to " + threads.getThreadCount());
+
+        ItemDto answer = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("drill")
+                .description("cordless drill")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+
+        for (Reader reader : readers) {
+            readUntil(reader, "\"id\":" + answer.getId() + ",\"name\":\"drill\"");
+        }
+        assertEquals(0, itemRequestEventBus.buffered());
+    }
+
+    @Test
+    void testSlowSubscriberBufferIsBounded() {
+        List<Runnable> deliveries = new ArrayList<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemRequestEventBus bus = new ItemRequestEventBus(userRepository, registry, 4, 60_000, 1_000, deliveries::add);
+        bus.subscribe(requester.getId());
+        for (long id = 1; id <= 10; id++) {
+            bus.onAnswer(new ItemRequestAnswerEvent(requester.getId(), ItemDto.builder().id(id).name("item" + id).build()));
+        }
+        bus.onAnswer(new ItemRequestAnswerEvent(owner.getId(), ItemDto.builder().id(11L).name("other").build()));
+
+        assertEquals(4, bus.buffered());
+        assertEquals(6, registry.get("shareit.requests.events.dropped").counter().count());
+        assertEquals(1, deliveries.size());
+
+        deliveries.forEach(Runnable::run);
+
+        assertEquals(0, bus.buffered());
+        assertEquals(1, bus.size());
+    }
+
+    @Test
+    void testSubscriberThatStopsReadingDoesNotStallOthers() throws Exception {
+        int open = itemRequestEventBus.size();
+        Socket slow = new Socket();
+        slow.setReceiveBufferSize(1024);
+        slow.connect(new InetSocketAddress("localhost", port));
+        subscribe(slow, owner.getId());
+        subscribe(10);
+        double stalled = meterRegistry.get("shareit.requests.events.stalled").counter().count();
+        double threads = deliveryThreads();
+        flood(owner.getId());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (itemRequestEventBus.buffered() == 16 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(200);
+
+        long started = System.nanoTime();
+        itemRequestEventBus.onAnswer(new ItemRequestAnswerEvent(requester.getId(),
+                ItemDto.builder().id(100L).name("drill").build()));
+        for (Reader reader : readers.subList(1, readers.size())) {
+            readUntil(reader, "\"id\":100,\"name\":\"drill\"");
+        }
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1), "fast subscribers waited for the slow one");
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (itemRequestEventBus.size() == open + 11 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(open + 10, itemRequestEventBus.size());
+        assertEquals(stalled + 1, meterRegistry.get("shareit.requests.events.stalled").counter().count());
+        assertEquals(threads + 1, deliveryThreads());
+
+        slow.close();
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (deliveryThreads() > threads && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(threads, deliveryThreads());
+    }
+
+    @Test
+    void testManyStalledSubscribersKeepDeliveryThreadsBounded() throws Exception {
+        int open = itemRequestEventBus.size();
+        for (int i = 0; i < STALLED; i++) {
+            Socket socket = new Socket();
+            socket.setReceiveBufferSize(1024);
+            socket.connect(new InetSocketAddress("localhost", port));
+            subscribe(socket, owner.getId());
+        }
+        subscribe(10);
+        double stalled = stalledCount();
+        double threads = deliveryThreads();
+        double maxThreads = threads;
+
+        flood(owner.getId());
+        itemRequestEventBus.onAnswer(new ItemRequestAnswerEvent(requester.getId(),
+                ItemDto.builder().id(100L).name("drill").build()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (itemRequestEventBus.size() > open + 10 && System.nanoTime() < deadline) {
+            maxThreads = Math.max(maxThreads, deliveryThreads());
+            Thread.sleep(10);
+        }
+        for (Reader reader : readers.subList(STALLED, readers.size())) {
+            readUntil(reader, "\"id\":100,\"name\":\"drill\"");
+        }
+
+        assertEquals(open + 10, itemRequestEventBus.size());
+        assertEquals(stalled + STALLED, stalledCount());
+        assertTrue(maxThreads > threads && maxThreads <= threads * 3, "delivery threads peaked at " + maxThreads);
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (deliveryThreads() > threads && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(threads, deliveryThreads());
+    }
+
+    private void flood(long userId) {
+        for (long id = 1; id <= 16; id++) {
+            itemRequestEventBus.onAnswer(new ItemRequestAnswerEvent(userId,
+                    ItemDto.builder().id(id).name("big").description(PAYLOAD).build()));
+        }
+    }
+
+    private double stalledCount() {
+        return meterRegistry.get("shareit.requests.events.stalled").counter().count();
+    }
+
+    private double deliveryThreads() {
+        return meterRegistry.get("shareit.requests.events.delivery-threads").gauge().value();
+    }
+
+    private void subscribe(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            subscribe(new Socket("localhost", port), requester.getId());
+        }
+    }
+
+    private void subscribe(Socket socket, long userId) throws IOException {
+        socket.setSoTimeout(10_000);
+        sockets.add(socket);
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /requests/subscribe HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n"
+                + "X-Sharer-User-Id: " + userId + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        Reader reader = new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8);
+        readers.add(reader);
+        readUntil(reader, "\r\n\r\n");
+    }
+
+    private static void readUntil(Reader reader, String marker) throws IOException {
+        StringBuilder received = new StringBuilder();
+        while (received.indexOf(marker) < 0) {
+            int c = reader.read();
+            if (c < 0) {
+                throw new IOException("stream closed before " + marker + ", received " + received);
+            }
+            received.append((char) c);
+        }
+    }
+}
\ No newline at end of file
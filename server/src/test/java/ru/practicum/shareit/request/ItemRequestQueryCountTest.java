@@ -0,0 +1,147 @@
+package ru.practicum.shareit.request;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.RecordingStatementInspector;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.RecordingStatementInspector")
+@AutoConfigureMockMvc
+class ItemRequestQueryCountTest {
+
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User requester;
+
+    private User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        requester = userRepository.save(User.builder().name("requester").email("requester@requests.ru").build());
+        owner = userRepository.save(User.builder().name("owner").email("owner@requests.ru").build());
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 20; i++) {
+            ItemRequest request = ItemRequest.builder()
+                    .description("request " + i)
+                    .requester(requester)
+                    .created(created.plusMinutes(i))
+                    .build();
+            List<Item> items = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                items.add(Item.builder()
+                        .name("item" + i + "-" + j)
+                        .description("description " + i)
+                        .available(true)
+                        .owner(owner)
+                        .request(request)
+                        .build());
+            }
+            itemRepository.saveAll(items);
+        }
+        RecordingStatementInspector.reset();
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.deleteAllInBatch();
+        itemRequestRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testGetAllRequestsByUserIdQueryCountDoesNotGrowWithPage() throws Exception {
+        for (int size : new int[]{5, 20}) {
+            RecordingStatementInspector.reset();
+            mvc.perform(get("/requests")
+                            .param("size", String.valueOf(size))
+                            .header(HEADER_USER_ID, requester.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(size)))
+                    .andExpect(jsonPath("$[0].description").value("request 0"))
+                    .andExpect(jsonPath("$[0].items", hasSize(2)));
+
+            assertEquals(3, RecordingStatementInspector.statements().size());
+        }
+    }
+
+    @Test
+    void testGetAllRequestsQueryCountDoesNotGrowWithPage() throws Exception {
+        for (int size : new int[]{5, 20}) {
+            RecordingStatementInspector.reset();
+            mvc.perform(get("/requests/all")
+                            .param("size", String.valueOf(size))
+                            .header(HEADER_USER_ID, owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].items", hasSize(2)));
+
+            assertEquals(2, RecordingStatementInspector.statements().size());
+        }
+    }
+
+    @Test
+    void testGetAllRequestsPagesNewestFirstByKeyset() throws Exception {
+        itemRequestRepository.save(ItemRequest.builder()
+                .description("own request")
+                .requester(owner)
+                .created(LocalDateTime.now())
+                .build());
+        List<String> descriptions = new ArrayList<>();
+        Integer after = null;
+        do {
+            RecordingStatementInspector.reset();
+            MockHttpServletRequestBuilder request = get("/requests/all")
+                    .param("size", "6")
+                    .header(HEADER_USER_ID, owner.getId());
+            if (after != null) {
+                request.param("after", after.toString());
+            }
+            String content = mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Integer> page = JsonPath.read(content, "$[*].id");
+            descriptions.addAll(JsonPath.read(content, "$[*].description"));
+            int cursorQueries = after == null ? 0 : 1;
+            int itemQueries = page.isEmpty() ? 0 : 1;
+            assertEquals(1 + cursorQueries + itemQueries, RecordingStatementInspector.statements().size());
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (after != null);
+
+        assertEquals(20, descriptions.size());
+        assertEquals("request 19", descriptions.get(0));
+        assertEquals("request 0", descriptions.get(19));
+    }
+}
\ No newline at end of file
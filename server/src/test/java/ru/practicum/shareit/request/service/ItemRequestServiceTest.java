@@ -5,8 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -20,7 +20,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -96,30 +99,53 @@ public class ItemRequestServiceTest {
     @Test
     void testGetRequests() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRequestRepository.findByRequesterIdOrderByCreatedAsc(anyLong())).thenReturn(List.of(itemReq1));
-        when(itemRepository.findByRequestId(anyLong())).thenReturn(List.of(item));
-        ItemRequestDto itemRequestDtoTest = itemRequestService.getAllRequestsByUserId(user1.getId()).get(0);
+        when(itemRequestRepository.findByRequesterIdOrderByCreatedAsc(anyLong(), any(PageRequest.class))).thenReturn(List.of(itemReq1, itemReq2));
+        when(itemRepository.findByRequestIdInOrderById(List.of(itemReq1.getId(), itemReq2.getId()))).thenReturn(List.of(item));
+        List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllRequestsByUserId(user1.getId(), 0, 10);
+        ItemRequestDto itemRequestDtoTest = itemRequestDtos.get(0);
 
         assertEquals(itemRequestDtoTest.getItems().get(0).getId(), item.getId());
         assertEquals(itemRequestDtoTest.getItems().get(0).getName(), item.getName());
         assertEquals(itemRequestDtoTest.getItems().get(0).getDescription(), item.getDescription());
         assertEquals(itemRequestDtoTest.getItems().get(0).getAvailable(), item.getAvailable());
 
-        verify(itemRequestRepository, times(1)).findByRequesterIdOrderByCreatedAsc(anyLong());
+        assertTrue(itemRequestDtos.get(1).getItems().isEmpty());
+
+        verify(itemRequestRepository, times(1)).findByRequesterIdOrderByCreatedAsc(user1.getId(), PageRequest.of(0, 10));
+        verify(itemRepository, never()).findByRequestId(anyLong());
     }
 
     @Test
     void testGetAllRequests() {
-        when(itemRequestRepository.findByIdIsNotOrderByCreatedAsc(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(itemReq1)));
-        when(itemRepository.findByRequestId(anyLong())).thenReturn(List.of(item));
-        ItemRequestDto itemRequestDtoTest = itemRequestService.getAllRequests(user1.getId(), 5, 10).get(0);
+        when(itemRequestRepository.findOthers(anyLong(), any(PageRequest.class))).thenReturn(List.of(itemReq1));
+        when(itemRepository.findByRequestIdInOrderById(anyCollection())).thenReturn(List.of(item));
+        ItemRequestDto itemRequestDtoTest = itemRequestService.getAllRequests(user1.getId(), null, 5, 10).get(0);
 
         assertEquals(itemRequestDtoTest.getItems().get(0).getId(), item.getId());
         assertEquals(itemRequestDtoTest.getItems().get(0).getName(), item.getName());
         assertEquals(itemRequestDtoTest.getItems().get(0).getDescription(), item.getDescription());
         assertEquals(itemRequestDtoTest.getItems().get(0).getAvailable(), item.getAvailable());
 
-        verify(itemRequestRepository, times(1)).findByIdIsNotOrderByCreatedAsc(anyLong(), any(PageRequest.class));
+        verify(itemRequestRepository, times(1)).findOthers(user1.getId(), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void testGetAllRequestsAfterCursor() {
+        when(itemRequestRepository.findById(itemReq2.getId())).thenReturn(Optional.of(itemReq2));
+        when(itemRequestRepository.findOthersBefore(user1.getId(), itemReq2.getCreated(), itemReq2.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(itemReq1));
+        List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllRequests(user1.getId(), itemReq2.getId(), 0, 10);
+
+        assertEquals(1, itemRequestDtos.size());
+        assertEquals(itemReq1.getId(), itemRequestDtos.get(0).getId());
+        verify(itemRequestRepository, never()).findOthers(anyLong(), any(PageRequest.class));
+    }
+
+    @Test
+    void testGetAllRequestsUnknownCursor() {
+        when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.getAllRequests(user1.getId(), 100L, 0, 10));
     }
 
     @Test